@@ -26,12 +26,8 @@ import com.google.auto.common.MoreElements;
 import com.google.common.collect.ImmutableSet;
 import dagger.internal.codegen.base.SourceFileGenerator;
 import dagger.internal.codegen.binding.BindingGraph;
-import dagger.internal.codegen.binding.ComponentDescriptor;
-import dagger.internal.codegen.binding.ComponentDescriptorFactory;
 import dagger.internal.codegen.validation.ComponentCreatorValidator;
-import dagger.internal.codegen.validation.ComponentValidator;
 import dagger.internal.codegen.validation.TypeCheckingProcessingStep;
-import dagger.internal.codegen.validation.ValidationReport;
 import java.lang.annotation.Annotation;
 import java.util.Set;
 import javax.annotation.processing.Messager;
@@ -48,28 +44,26 @@ import javax.lang.model.element.TypeElement;
  * that compilation succeeds. If it does not, the compilation pipeline will fail, even if header
  * compilation succeeded.
  *
+ * <p>For the same reason, components are not validated here: the API is derived from their
+ * declarations alone, and any errors are reported by the full compilation. Creators are still
+ * validated, since that only reads their own declarations.
+ *
  * <p>The components emitted by this processing step include all of the API elements exposed by the
  * normal step. Method bodies are omitted as Turbine ignores them entirely.
  */
 final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeElement> {
   private final Messager messager;
-  private final ComponentValidator componentValidator;
   private final ComponentCreatorValidator creatorValidator;
-  private final ComponentDescriptorFactory componentDescriptorFactory;
-  private final SourceFileGenerator<ComponentDescriptor> componentGenerator;
+  private final SourceFileGenerator<TypeElement> componentGenerator;
 
   @Inject
   ComponentHjarProcessingStep(
       Messager messager,
-      ComponentValidator componentValidator,
       ComponentCreatorValidator creatorValidator,
-      ComponentDescriptorFactory componentDescriptorFactory,
-      SourceFileGenerator<ComponentDescriptor> componentGenerator) {
+      SourceFileGenerator<TypeElement> componentGenerator) {
     super(MoreElements::asType);
     this.messager = messager;
-    this.componentValidator = componentValidator;
     this.creatorValidator = creatorValidator;
-    this.componentDescriptorFactory = componentDescriptorFactory;
     this.componentGenerator = componentGenerator;
   }
 
@@ -78,30 +72,17 @@ final class ComponentHjarProcessingStep extends TypeCheckingProcessingStep<TypeE
     return union(rootComponentAnnotations(), rootComponentCreatorAnnotations());
   }
 
-  // TODO(ronshapiro): Validation might not even be necessary. We should measure it and figure out
-  // if it's worth seeing if removing it will still work. We could potentially add a new catch
-  // clause for any exception that's not TypeNotPresentException and ignore the component entirely
-  // in that case.
   @Override
   protected void process(
       TypeElement element, ImmutableSet<Class<? extends Annotation>> annotations) {
     if (!disjoint(annotations, rootComponentAnnotations())) {
-      processRootComponent(element);
+      componentGenerator.generate(element, messager);
     }
     if (!disjoint(annotations, rootComponentCreatorAnnotations())) {
       processRootCreator(element);
     }
   }
 
-  private void processRootComponent(TypeElement element) {
-    ValidationReport<TypeElement> validationReport = componentValidator.validate(element);
-    validationReport.printMessagesTo(messager);
-    if (validationReport.isClean()) {
-      componentGenerator.generate(
-          componentDescriptorFactory.rootComponentDescriptor(element), messager);
-    }
-  }
-
   private void processRootCreator(TypeElement creator) {
     creatorValidator.validate(asType(creator)).printMessagesTo(messager);
   }
@@ -28,6 +28,7 @@ import com.google.auto.common.BasicAnnotationProcessor.ProcessingStep;
 import com.google.auto.common.MoreElements;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import dagger.internal.codegen.base.ProcessingProfiler;
 import dagger.internal.codegen.base.SourceFileGenerator;
 import dagger.internal.codegen.binding.BindingGraph;
 import dagger.internal.codegen.binding.BindingGraphFactory;
@@ -59,6 +60,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
   private final BindingGraphFactory bindingGraphFactory;
   private final SourceFileGenerator<BindingGraph> componentGenerator;
   private final BindingGraphValidator bindingGraphValidator;
+  private final ProcessingProfiler profiler;
 
   @Inject
   ComponentProcessingStep(
@@ -69,7 +71,8 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
       ComponentDescriptorFactory componentDescriptorFactory,
       BindingGraphFactory bindingGraphFactory,
       SourceFileGenerator<BindingGraph> componentGenerator,
-      BindingGraphValidator bindingGraphValidator) {
+      BindingGraphValidator bindingGraphValidator,
+      ProcessingProfiler profiler) {
     super(MoreElements::asType);
     this.messager = messager;
     this.componentValidator = componentValidator;
@@ -79,6 +82,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
     this.bindingGraphFactory = bindingGraphFactory;
     this.componentGenerator = componentGenerator;
     this.bindingGraphValidator = bindingGraphValidator;
+    this.profiler = profiler;
   }
 
   @Override
@@ -112,7 +116,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
     if (!validateFullBindingGraph(componentDescriptor)) {
       return;
     }
-    BindingGraph bindingGraph = bindingGraphFactory.create(componentDescriptor, false);
+    BindingGraph bindingGraph = createBindingGraph(componentDescriptor, false);
     if (bindingGraphValidator.isValid(bindingGraph.topLevelBindingGraph())) {
       generateComponent(bindingGraph);
     }
@@ -128,8 +132,26 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
     validateFullBindingGraph(subcomponentDescriptor);
   }
 
+  private BindingGraph createBindingGraph(
+      ComponentDescriptor componentDescriptor, boolean createFullBindingGraph) {
+    try (ProcessingProfiler.Span span =
+        profiler
+            .start("graph", componentDescriptor.typeElement().getQualifiedName().toString())
+            .arg("fullBindingGraph", createFullBindingGraph)) {
+      BindingGraph bindingGraph =
+          bindingGraphFactory.create(componentDescriptor, createFullBindingGraph);
+      span.arg("nodes", bindingGraph.topLevelBindingGraph().network().nodes().size())
+          .arg("edges", bindingGraph.topLevelBindingGraph().network().edges().size());
+      return bindingGraph;
+    }
+  }
+
   private void generateComponent(BindingGraph bindingGraph) {
-    componentGenerator.generate(bindingGraph, messager);
+    try (ProcessingProfiler.Span span =
+        profiler.start(
+            "generate", bindingGraph.componentTypeElement().getQualifiedName().toString())) {
+      componentGenerator.generate(bindingGraph, messager);
+    }
   }
 
   private void processCreator(Element creator) {
@@ -148,7 +170,7 @@ final class ComponentProcessingStep extends TypeCheckingProcessingStep<TypeEleme
     if (!bindingGraphValidator.shouldDoFullBindingGraphValidation(component)) {
       return true;
     }
-    BindingGraph fullBindingGraph = bindingGraphFactory.create(componentDescriptor, true);
+    BindingGraph fullBindingGraph = createBindingGraph(componentDescriptor, true);
     return bindingGraphValidator.isValid(fullBindingGraph.topLevelBindingGraph());
   }
 
@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static dagger.internal.codegen.extension.DaggerStreams.toImmutableList;
 import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.ISOLATING;
 
 import com.google.auto.common.BasicAnnotationProcessor;
@@ -31,6 +32,7 @@ import dagger.Module;
 import dagger.Provides;
 import dagger.internal.codegen.SpiModule.TestingPlugins;
 import dagger.internal.codegen.base.ClearableCache;
+import dagger.internal.codegen.base.ProcessingProfiler;
 import dagger.internal.codegen.base.SourceFileGenerationException;
 import dagger.internal.codegen.base.SourceFileGenerator;
 import dagger.internal.codegen.binding.InjectBindingRegistry;
@@ -48,15 +50,18 @@ import dagger.internal.codegen.validation.InjectBindingRegistryModule;
 import dagger.internal.codegen.validation.MonitoringModuleProcessingStep;
 import dagger.internal.codegen.validation.MultibindingAnnotationsProcessingStep;
 import dagger.spi.BindingGraphPlugin;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.SourceVersion;
+import javax.tools.Diagnostic;
 import net.ltgt.gradle.incap.IncrementalAnnotationProcessor;
 
 /**
@@ -76,6 +81,8 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
   @Inject ImmutableList<ProcessingStep> processingSteps;
   @Inject BindingGraphPlugins bindingGraphPlugins;
   @Inject Set<ClearableCache> clearableCaches;
+  @Inject ProcessingProfiler profiler;
+  @Inject Optional<ParallelFormattingFiler> parallelFormattingFiler;
 
   public ComponentProcessor() {
     this.testingPlugins = Optional.empty();
@@ -170,34 +177,63 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
         ComponentProcessingStep componentProcessingStep,
         ComponentHjarProcessingStep componentHjarProcessingStep,
         BindingMethodProcessingStep bindingMethodProcessingStep,
-        CompilerOptions compilerOptions) {
-      return ImmutableList.of(
-          mapKeyProcessingStep,
-          injectProcessingStep,
-          assistedInjectProcessingStep,
-          assistedFactoryProcessingStep,
-          assistedProcessingStep,
-          monitoringModuleProcessingStep,
-          multibindingAnnotationsProcessingStep,
-          bindsInstanceProcessingStep,
-          moduleProcessingStep,
-          compilerOptions.headerCompilation()
-              ? componentHjarProcessingStep
-              : componentProcessingStep,
-          bindingMethodProcessingStep);
+        CompilerOptions compilerOptions,
+        ProcessingProfiler profiler) {
+      return Stream.<ProcessingStep>of(
+              mapKeyProcessingStep,
+              injectProcessingStep,
+              assistedInjectProcessingStep,
+              assistedFactoryProcessingStep,
+              assistedProcessingStep,
+              monitoringModuleProcessingStep,
+              multibindingAnnotationsProcessingStep,
+              bindsInstanceProcessingStep,
+              moduleProcessingStep,
+              compilerOptions.headerCompilation()
+                  ? componentHjarProcessingStep
+                  : componentProcessingStep,
+              bindingMethodProcessingStep)
+          .map(profiler::profile)
+          .collect(toImmutableList());
     }
   }
 
   @Override
   protected void postRound(RoundEnvironment roundEnv) {
     if (!roundEnv.processingOver()) {
-      try {
+      try (ProcessingProfiler.Span span = profiler.start("generate", "required bindings")) {
         injectBindingRegistry.generateSourcesForRequiredBindings(
             factoryGenerator, membersInjectorGenerator);
       } catch (SourceFileGenerationException e) {
         e.printMessageTo(processingEnv.getMessager());
       }
     }
+    writePendingSources();
+    if (roundEnv.processingOver()) {
+      parallelFormattingFiler.ifPresent(ParallelFormattingFiler::shutdown);
+      try {
+        profiler.writeReport();
+      } catch (IOException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.WARNING, "Could not write the Dagger profile: " + e.getMessage());
+      }
+    }
     clearableCaches.forEach(ClearableCache::clearCache);
   }
+
+  /** Writes the sources that are still being formatted, which must be done within the round. */
+  private void writePendingSources() {
+    if (parallelFormattingFiler.isPresent()) {
+      try {
+        parallelFormattingFiler.get().writePendingSources();
+      } catch (IOException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.ERROR, "Could not write generated source: " + e.getMessage());
+      }
+    }
+  }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import com.google.googlejavaformat.java.Formatter;
+import com.google.googlejavaformat.java.FormatterException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+
+/**
+ * A {@link Filer} that formats generated source files with google-java-format on a pool of worker
+ * threads, like {@link com.google.googlejavaformat.java.filer.FormattingFiler} does on the calling
+ * thread.
+ *
+ * <p>Everything that touches the compiler stays on the processor thread: source files are created
+ * in the delegate filer as soon as they are requested, so duplicate files are still reported where
+ * they are generated, and the formatted text is written to them in the order they were created.
+ * Only the formatting itself, which reads nothing but the source text, runs on the workers.
+ *
+ * <p>Formatted sources are written as soon as they and all earlier sources are ready, and by
+ * {@link #writePendingSources()}, which must be called before the end of each round. The text
+ * waiting to be written is bounded, so that a round that generates many large components doesn't
+ * keep all of their sources in memory until it ends.
+ */
+final class ParallelFormattingFiler implements Filer {
+  /** The most formatted sources that may be held in memory before waiting for one to finish. */
+  private static final int MAX_PENDING_SOURCES = 64;
+
+  /** The most characters of source that may be held in memory before waiting for one to finish. */
+  private static final long MAX_PENDING_CHARS = 16 * 1024 * 1024;
+
+  private final Filer delegate;
+  private final Messager messager;
+  private final ExecutorService executor;
+  private final Queue<PendingSource> pendingSources = new ArrayDeque<>();
+  private long pendingChars;
+
+  ParallelFormattingFiler(Filer delegate, Messager messager, int threads) {
+    this.delegate = delegate;
+    this.messager = messager;
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              Thread thread = new Thread(runnable, "dagger-source-formatter");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @Override
+  public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements)
+      throws IOException {
+    JavaFileObject sourceFile = delegate.createSourceFile(name, originatingElements);
+    return new ForwardingJavaFileObject<JavaFileObject>(sourceFile) {
+      @Override
+      public Writer openWriter() {
+        return new StringWriter() {
+          private boolean closed;
+
+          @Override
+          public void close() throws IOException {
+            if (!closed) {
+              closed = true;
+              format(sourceFile, toString());
+            }
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public JavaFileObject createClassFile(CharSequence name, Element... originatingElements)
+      throws IOException {
+    return delegate.createClassFile(name, originatingElements);
+  }
+
+  @Override
+  public FileObject createResource(
+      Location location,
+      CharSequence moduleAndPkg,
+      CharSequence relativeName,
+      Element... originatingElements)
+      throws IOException {
+    return delegate.createResource(location, moduleAndPkg, relativeName, originatingElements);
+  }
+
+  @Override
+  public FileObject getResource(
+      Location location, CharSequence moduleAndPkg, CharSequence relativeName)
+      throws IOException {
+    return delegate.getResource(location, moduleAndPkg, relativeName);
+  }
+
+  private void format(JavaFileObject sourceFile, String source) throws IOException {
+    pendingSources.add(
+        new PendingSource(
+            sourceFile, source, executor.submit(() -> new Formatter().formatSource(source))));
+    pendingChars += source.length();
+    writeFormattedSources(false);
+    while (pendingSources.size() > MAX_PENDING_SOURCES || pendingChars > MAX_PENDING_CHARS) {
+      writeFormattedSources(true);
+    }
+  }
+
+  /** Waits for all sources to be formatted and writes them. */
+  void writePendingSources() throws IOException {
+    while (!pendingSources.isEmpty()) {
+      writeFormattedSources(true);
+    }
+  }
+
+  /**
+   * Writes the sources at the head of the queue that have been formatted. If {@code waitForOne},
+   * first waits for the oldest source to be formatted.
+   */
+  private void writeFormattedSources(boolean waitForOne) throws IOException {
+    while (!pendingSources.isEmpty() && (waitForOne || pendingSources.peek().formatted.isDone())) {
+      waitForOne = false;
+      PendingSource pendingSource = pendingSources.remove();
+      pendingChars -= pendingSource.source.length();
+      pendingSource.write();
+    }
+  }
+
+  /** Stops the worker threads. */
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private final class PendingSource {
+    final JavaFileObject sourceFile;
+    final String source;
+    final Future<String> formatted;
+
+    PendingSource(JavaFileObject sourceFile, String source, Future<String> formatted) {
+      this.sourceFile = sourceFile;
+      this.source = source;
+      this.formatted = formatted;
+    }
+
+    void write() throws IOException {
+      String text;
+      try {
+        text = formatted.get();
+      } catch (ExecutionException e) {
+        if (!(e.getCause() instanceof FormatterException)) {
+          throw new IOException("Could not format " + sourceFile.getName(), e.getCause());
+        }
+        // Like FormattingFiler, write the source unformatted so that the developer can see the
+        // code that caused the problem.
+        text = source;
+        messager.printMessage(Diagnostic.Kind.NOTE, "Error formatting " + sourceFile.getName());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while formatting " + sourceFile.getName(), e);
+      }
+      try (Writer writer = sourceFile.openWriter()) {
+        writer.write(text);
+      }
+    }
+  }
+}
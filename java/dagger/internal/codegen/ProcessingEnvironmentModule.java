@@ -16,13 +16,14 @@
 
 package dagger.internal.codegen;
 
-import com.google.googlejavaformat.java.filer.FormattingFiler;
+import com.sun.source.util.Trees;
 import dagger.Binds;
 import dagger.Module;
 import dagger.Provides;
 import dagger.Reusable;
 import dagger.internal.codegen.SpiModule.ProcessorClassLoader;
 import dagger.internal.codegen.base.ClearableCache;
+import dagger.internal.codegen.base.ProcessingProfiler;
 import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions;
 import dagger.internal.codegen.compileroption.ProcessingOptions;
@@ -30,6 +31,7 @@ import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.multibindings.IntoSet;
 import dagger.spi.BindingGraphPlugin;
 import java.util.Map;
+import java.util.Optional;
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -57,12 +59,26 @@ interface ProcessingEnvironmentModule {
   }
 
   @Provides
-  static Filer filer(CompilerOptions compilerOptions, ProcessingEnvironment processingEnvironment) {
+  static Filer filer(
+      ProcessingEnvironment processingEnvironment,
+      Optional<ParallelFormattingFiler> parallelFormattingFiler) {
+    return parallelFormattingFiler.isPresent()
+        ? parallelFormattingFiler.get()
+        : processingEnvironment.getFiler();
+  }
+
+  @Provides
+  @Singleton
+  static Optional<ParallelFormattingFiler> parallelFormattingFiler(
+      CompilerOptions compilerOptions, ProcessingEnvironment processingEnvironment) {
     if (compilerOptions.headerCompilation() || !compilerOptions.formatGeneratedSource()) {
-      return processingEnvironment.getFiler();
-    } else {
-      return new FormattingFiler(processingEnvironment.getFiler());
+      return Optional.empty();
     }
+    return Optional.of(
+        new ParallelFormattingFiler(
+            processingEnvironment.getFiler(),
+            processingEnvironment.getMessager(),
+            Runtime.getRuntime().availableProcessors()));
   }
 
   @Provides
@@ -81,10 +97,27 @@ interface ProcessingEnvironmentModule {
     return new DaggerElements(processingEnvironment);
   }
 
+  @Provides
+  @Singleton
+  static Optional<Trees> trees(ProcessingEnvironment processingEnvironment) {
+    try {
+      return Optional.of(Trees.instance(processingEnvironment));
+    } catch (IllegalArgumentException e) {
+      // Not running in javac, so source trees are unavailable.
+      return Optional.empty();
+    }
+  }
+
   @Binds
   @IntoSet
   ClearableCache daggerElementAsClearableCache(DaggerElements elements);
 
+  @Provides
+  @Singleton
+  static ProcessingProfiler processingProfiler(CompilerOptions compilerOptions) {
+    return ProcessingProfiler.create(compilerOptions.profilePath());
+  }
+
   @Provides
   @ProcessorClassLoader
   static ClassLoader processorClassloader(ProcessingEnvironment processingEnvironment) {
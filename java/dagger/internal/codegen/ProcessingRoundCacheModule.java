@@ -20,12 +20,14 @@ import dagger.Binds;
 import dagger.Module;
 import dagger.internal.codegen.base.ClearableCache;
 import dagger.internal.codegen.binding.BindingGraphFactory;
+import dagger.internal.codegen.binding.KeyFactory;
 import dagger.internal.codegen.binding.ModuleDescriptor;
 import dagger.internal.codegen.kotlin.KotlinMetadataFactory;
 import dagger.internal.codegen.validation.AnyBindingMethodValidator;
 import dagger.internal.codegen.validation.ComponentCreatorValidator;
 import dagger.internal.codegen.validation.ComponentValidator;
 import dagger.internal.codegen.validation.InjectValidator;
+import dagger.internal.codegen.writing.ConstantProvisions;
 import dagger.multibindings.IntoSet;
 
 /**
@@ -61,4 +63,12 @@ interface ProcessingRoundCacheModule {
   @Binds
   @IntoSet
   ClearableCache kotlinMetadata(KotlinMetadataFactory cache);
+
+  @Binds
+  @IntoSet
+  ClearableCache keyFactory(KeyFactory cache);
+
+  @Binds
+  @IntoSet
+  ClearableCache constantProvisions(ConstantProvisions cache);
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.base;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.auto.common.BasicAnnotationProcessor.ProcessingStep;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SetMultimap;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.lang.model.element.Element;
+
+/**
+ * Records how long the processor spends in each phase of its work, and writes the result to the
+ * path given by {@code -Adagger.profile=<path>} in the Chrome trace event format, which can be
+ * opened in {@code chrome://tracing} or Perfetto.
+ *
+ * <p>Each {@linkplain #start(String, String) span} records its wall time and, if the JVM supports
+ * it, the number of bytes allocated by the current thread while it was open. Spans may be nested.
+ * When no report was requested, spans are not recorded and cost nothing beyond the call.
+ */
+public final class ProcessingProfiler {
+  private final Optional<Path> reportPath;
+  private final long startNanos = System.nanoTime();
+  private final List<Event> events = new ArrayList<>();
+  private final Span disabledSpan = new Span();
+
+  /** Creates a profiler that writes a report to {@code reportPath}, if present. */
+  public static ProcessingProfiler create(Optional<String> reportPath) {
+    return new ProcessingProfiler(reportPath.map(Paths::get));
+  }
+
+  private ProcessingProfiler(Optional<Path> reportPath) {
+    this.reportPath = reportPath;
+  }
+
+  /** Returns {@code true} if a report was requested. */
+  public boolean isEnabled() {
+    return reportPath.isPresent();
+  }
+
+  /**
+   * Starts a span. The span is recorded when it is {@linkplain Span#close() closed}, so it should be
+   * used in a try-with-resources statement.
+   *
+   * @param category the kind of work, such as {@code "step"} or {@code "plugin"}
+   * @param name the name of the span within its category
+   */
+  public Span start(String category, String name) {
+    return isEnabled() ? new Span(category, name) : disabledSpan;
+  }
+
+  /** Returns a step that records a span for each time {@code step} processes elements. */
+  public ProcessingStep profile(ProcessingStep step) {
+    if (!isEnabled()) {
+      return step;
+    }
+    return new ProcessingStep() {
+      @Override
+      public Set<? extends Class<? extends Annotation>> annotations() {
+        return step.annotations();
+      }
+
+      @Override
+      public Set<? extends Element> process(
+          SetMultimap<Class<? extends Annotation>, Element> elementsByAnnotation) {
+        try (Span span =
+            start("step", step.getClass().getSimpleName())
+                .arg("elements", elementsByAnnotation.values().size())) {
+          return step.process(elementsByAnnotation);
+        }
+      }
+    };
+  }
+
+  /** Writes the report, if one was requested. */
+  public void writeReport() throws IOException {
+    if (!isEnabled()) {
+      return;
+    }
+    Path path = reportPath.get().toAbsolutePath();
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+      writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+      for (int i = 0; i < events.size(); i++) {
+        if (i > 0) {
+          writer.write(",");
+        }
+        writer.write("\n");
+        events.get(i).writeTo(writer);
+      }
+      writer.write("\n]}\n");
+    }
+  }
+
+  /** A span of work that is recorded when it is closed. */
+  public final class Span implements AutoCloseable {
+    private final String category;
+    private final String name;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final Map<String, Object> args = new LinkedHashMap<>();
+
+    private Span(String category, String name) {
+      this.category = category;
+      this.name = name;
+      this.startNanos = System.nanoTime();
+      this.startAllocatedBytes = currentThreadAllocatedBytes();
+    }
+
+    /** Creates the span that is returned when profiling is disabled. */
+    private Span() {
+      this.category = null;
+      this.name = null;
+      this.startNanos = 0;
+      this.startAllocatedBytes = -1;
+    }
+
+    /**
+     * Adds an argument that is shown with the span, such as a component name.
+     *
+     * <p>Arguments are kept until the report is written, so they only take strings and primitives.
+     * Callers must not be able to keep their own objects, such as elements or graphs, alive for the
+     * rest of the compilation.
+     */
+    public Span arg(String key, String value) {
+      return putArg(key, value);
+    }
+
+    /** Adds an argument that is shown with the span, such as a node count. */
+    public Span arg(String key, long value) {
+      return putArg(key, value);
+    }
+
+    /** Adds an argument that is shown with the span, such as whether a graph is full. */
+    public Span arg(String key, boolean value) {
+      return putArg(key, value);
+    }
+
+    private Span putArg(String key, Object value) {
+      if (isEnabled()) {
+        args.put(key, value);
+      }
+      return this;
+    }
+
+    @Override
+    public void close() {
+      if (!isEnabled()) {
+        return;
+      }
+      long endNanos = System.nanoTime();
+      long endAllocatedBytes = currentThreadAllocatedBytes();
+      if (startAllocatedBytes >= 0 && endAllocatedBytes >= 0) {
+        args.put("allocatedBytes", endAllocatedBytes - startAllocatedBytes);
+      }
+      events.add(
+          new Event(
+              category,
+              name,
+              Thread.currentThread().getId(),
+              (startNanos - ProcessingProfiler.this.startNanos) / 1000,
+              (endNanos - startNanos) / 1000,
+              ImmutableMap.copyOf(args)));
+    }
+  }
+
+  /** A complete ({@code "ph":"X"}) trace event. */
+  private static final class Event {
+    private final String category;
+    private final String name;
+    private final long threadId;
+    private final long timestampMicros;
+    private final long durationMicros;
+    private final ImmutableMap<String, Object> args;
+
+    Event(
+        String category,
+        String name,
+        long threadId,
+        long timestampMicros,
+        long durationMicros,
+        ImmutableMap<String, Object> args) {
+      this.category = category;
+      this.name = name;
+      this.threadId = threadId;
+      this.timestampMicros = timestampMicros;
+      this.durationMicros = durationMicros;
+      this.args = args;
+    }
+
+    void writeTo(Writer writer) throws IOException {
+      writer.write("{\"name\":");
+      writeValue(writer, name);
+      writer.write(",\"cat\":");
+      writeValue(writer, category);
+      writer.write(",\"ph\":\"X\",\"pid\":1,\"tid\":" + threadId);
+      writer.write(",\"ts\":" + timestampMicros + ",\"dur\":" + durationMicros);
+      writer.write(",\"args\":{");
+      boolean first = true;
+      for (Map.Entry<String, Object> arg : args.entrySet()) {
+        if (!first) {
+          writer.write(",");
+        }
+        first = false;
+        writeValue(writer, arg.getKey());
+        writer.write(":");
+        writeValue(writer, arg.getValue());
+      }
+      writer.write("}}");
+    }
+
+    private static void writeValue(Writer writer, Object value) throws IOException {
+      if (value instanceof Number || value instanceof Boolean) {
+        writer.write(value.toString());
+        return;
+      }
+      writer.write('"');
+      for (char c : String.valueOf(value).toCharArray()) {
+        switch (c) {
+          case '"':
+            writer.write("\\\"");
+            break;
+          case '\\':
+            writer.write("\\\\");
+            break;
+          case '\n':
+            writer.write("\\n");
+            break;
+          default:
+            if (c < 0x20) {
+              writer.write(String.format("\\u%04x", (int) c));
+            } else {
+              writer.write(c);
+            }
+        }
+      }
+      writer.write('"');
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread, or {@code -1} if the JVM
+   * doesn't support measuring it.
+   */
+  private static long currentThreadAllocatedBytes() {
+    try {
+      ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean hotSpotThreadMXBean =
+            (com.sun.management.ThreadMXBean) threadMXBean;
+        if (hotSpotThreadMXBean.isThreadAllocatedMemorySupported()
+            && hotSpotThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+          return hotSpotThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+      }
+    } catch (LinkageError e) {
+      // com.sun.management is not available in this JVM.
+    }
+    return -1;
+  }
+}
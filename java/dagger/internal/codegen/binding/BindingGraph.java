@@ -35,13 +35,18 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Sets;
 import com.google.common.graph.ImmutableNetwork;
 import com.google.common.graph.Traverser;
+import dagger.internal.codegen.extension.CompactDirectedGraph;
 import dagger.model.BindingGraph.ChildFactoryMethodEdge;
 import dagger.model.BindingGraph.ComponentNode;
+import dagger.model.BindingGraph.DependencyEdge;
 import dagger.model.BindingGraph.Edge;
+import dagger.model.BindingGraph.MaybeBinding;
 import dagger.model.BindingGraph.Node;
 import dagger.model.ComponentPath;
+import dagger.model.DependencyRequest;
 import dagger.model.Key;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -98,6 +103,29 @@ public abstract class BindingGraph {
           : Optional.empty();
     }
 
+    /**
+     * Returns the {@link DependencyEdge}s of this graph in a compact form that can be traversed
+     * without hashing nodes.
+     */
+    @Memoized
+    CompactDirectedGraph<Node> compactDependencyGraph() {
+      return CompactDirectedGraph.copyOf(network(), DependencyEdge.class::isInstance);
+    }
+
+    // This overrides dagger.model.BindingGraph with a more efficient implementation.
+    @Override
+    public ImmutableSet<DependencyEdge> entryPointEdgesDependingOnBinding(MaybeBinding binding) {
+      CompactDirectedGraph<Node> dependencyGraph = compactDependencyGraph();
+      BitSet nodesDependingOnBinding =
+          dependencyGraph.nodesReaching(dependencyGraph.index(binding));
+      return entryPointEdges().stream()
+          .filter(
+              edge ->
+                  nodesDependingOnBinding.get(
+                      dependencyGraph.index(network().incidentNodes(edge).target())))
+          .collect(toImmutableSet());
+    }
+
     /** Returns the set of subcomponent nodes of the given component node. */
     ImmutableSet<ComponentNode> subcomponentNodes(ComponentNode componentNode) {
       return subcomponentNodes.get(componentNode);
@@ -109,6 +137,36 @@ public abstract class BindingGraph {
       return super.nodesByClass();
     }
 
+    @Override
+    @Memoized
+    public ImmutableSet<DependencyEdge> dependencyEdges() {
+      return super.dependencyEdges();
+    }
+
+    @Override
+    @Memoized
+    public ImmutableSet<DependencyEdge> entryPointEdges() {
+      return super.entryPointEdges();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
+      return super.dependencyGraph();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableSetMultimap<Key, dagger.model.Binding> bindingsByKey() {
+      return super.bindingsByKey();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableSetMultimap<DependencyRequest, DependencyEdge> dependencyEdgesByRequest() {
+      return super.dependencyEdgesByRequest();
+    }
+
     /**
      * Returns an index of each {@link BindingNode} by its {@link ComponentPath}. Accessing this for
      * a component and its parent components is faster than doing a graph traversal.
@@ -59,7 +59,6 @@ import dagger.producers.Produced;
 import dagger.producers.Producer;
 import dagger.producers.internal.ProductionExecutorModule;
 import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -224,7 +223,10 @@ public final class BindingGraphFactory implements ClearableCache {
       // identifier so that the multibinding itself is resolved.
       modules(componentDescriptor, parentResolver).stream()
           .flatMap(module -> module.allBindingKeys().stream())
-          .map(key -> key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build())
+          .map(
+              key ->
+                  keyFactory.intern(
+                      key.toBuilder().multibindingContributionIdentifier(Optional.empty()).build()))
           .forEach(requestResolver::resolve);
     }
 
@@ -319,7 +321,13 @@ public final class BindingGraphFactory implements ClearableCache {
     final ImmutableSetMultimap<Key, DelegateDeclaration> delegateMultibindingDeclarations;
     final Map<Key, ResolvedBindings> resolvedContributionBindings = new LinkedHashMap<>();
     final Map<Key, ResolvedBindings> resolvedMembersInjectionBindings = new LinkedHashMap<>();
-    final Deque<Key> cycleStack = new ArrayDeque<>();
+    final ImmutableList<Resolver> resolverLineage;
+    /**
+     * The keys currently being resolved by this resolver. A key is never pushed while it is
+     * already being resolved, so a set is enough to track the stack and makes each cycle check
+     * constant-time instead of linear in the depth of the request chain.
+     */
+    final Set<Key> cycleStack = new HashSet<>();
     final Map<Key, Boolean> keyDependsOnLocalBindingsCache = new HashMap<>();
     final Map<Binding, Boolean> bindingDependsOnLocalBindingsCache = new HashMap<>();
     final Queue<ComponentDescriptor> subcomponentsToResolve = new ArrayDeque<>();
@@ -343,6 +351,9 @@ public final class BindingGraphFactory implements ClearableCache {
       this.explicitMultibindings = multibindingContributionsByMultibindingKey(explicitBindingsSet);
       this.delegateMultibindingDeclarations =
           multibindingContributionsByMultibindingKey(delegateDeclarations.values());
+      ImmutableList.Builder<Resolver> resolverLineage = ImmutableList.builder();
+      parentResolver.ifPresent(parent -> resolverLineage.addAll(parent.resolverLineage));
+      this.resolverLineage = resolverLineage.add(this).build();
       subcomponentsToResolve.addAll(
           componentDescriptor.childComponentsDeclaredByFactoryMethods().values());
       subcomponentsToResolve.addAll(
@@ -463,7 +474,7 @@ public final class BindingGraphFactory implements ClearableCache {
     }
 
     private ComponentDescriptor rootComponent() {
-      return parentResolver.map(Resolver::rootComponent).orElse(componentDescriptor);
+      return resolverLineage.get(0).componentDescriptor;
     }
 
     /** Returns the resolved members injection bindings for the given {@link Key}. */
@@ -544,10 +555,10 @@ public final class BindingGraphFactory implements ClearableCache {
 
       ResolvedBindings resolvedDelegate;
       try {
-        cycleStack.push(delegateKey);
+        cycleStack.add(delegateKey);
         resolvedDelegate = lookUpBindings(delegateKey);
       } finally {
-        cycleStack.pop();
+        cycleStack.remove(delegateKey);
       }
       if (resolvedDelegate.contributionBindings().isEmpty()) {
         // This is guaranteed to result in a missing binding error, so it doesn't matter if the
@@ -685,15 +696,12 @@ public final class BindingGraphFactory implements ClearableCache {
                   && declaration.bindingElement().equals(binding.bindingElement()));
     }
 
-    /** Returns the resolver lineage from parent to child. */
+    /**
+     * Returns the resolver lineage from parent to child. The lineage is looked up several times for
+     * every key, so it is computed once when the resolver is created.
+     */
     private ImmutableList<Resolver> getResolverLineage() {
-      ImmutableList.Builder<Resolver> resolverList = ImmutableList.builder();
-      for (Optional<Resolver> currentResolver = Optional.of(this);
-          currentResolver.isPresent();
-          currentResolver = currentResolver.get().parentResolver) {
-        resolverList.add(currentResolver.get());
-      }
-      return resolverList.build().reverse();
+      return resolverLineage;
     }
 
     /**
@@ -810,13 +818,13 @@ public final class BindingGraphFactory implements ClearableCache {
         }
       }
 
-      cycleStack.push(key);
+      cycleStack.add(key);
       try {
         ResolvedBindings bindings = lookUpBindings(key);
         resolvedContributionBindings.put(key, bindings);
         resolveDependencies(bindings);
       } finally {
-        cycleStack.pop();
+        cycleStack.remove(key);
       }
     }
 
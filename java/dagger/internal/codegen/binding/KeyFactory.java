@@ -36,6 +36,7 @@ import com.google.auto.common.MoreTypes;
 import com.google.common.collect.ImmutableSet;
 import dagger.Binds;
 import dagger.BindsOptionalOf;
+import dagger.internal.codegen.base.ClearableCache;
 import dagger.internal.codegen.base.ContributionType;
 import dagger.internal.codegen.base.FrameworkTypes;
 import dagger.internal.codegen.base.MapType;
@@ -54,6 +55,7 @@ import dagger.producers.Producer;
 import dagger.producers.Production;
 import dagger.producers.internal.ProductionImplementation;
 import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -61,6 +63,7 @@ import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -69,11 +72,18 @@ import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeMirror;
 
-/** A factory for {@link Key}s. */
-public final class KeyFactory {
+/**
+ * A factory for {@link Key}s.
+ *
+ * <p>Keys returned by this factory are {@linkplain #intern(Key) interned} for the current
+ * processing round.
+ */
+@Singleton
+public final class KeyFactory implements ClearableCache {
   private final DaggerTypes types;
   private final DaggerElements elements;
   private final InjectionAnnotations injectionAnnotations;
+  private final Map<Key, Key> internedKeys = new HashMap<>();
 
   @Inject
   KeyFactory(
@@ -83,6 +93,26 @@ public final class KeyFactory {
     this.injectionAnnotations = injectionAnnotations;
   }
 
+  /**
+   * Returns the canonical instance of {@code key}.
+   *
+   * <p>{@link Key} equality compares types with {@link MoreTypes#equivalence()}, which walks both
+   * types. The intern table pays for that comparison once, when the key is created. After that,
+   * equal keys from this factory are the same instance, so lookups in maps keyed by {@link Key} are
+   * resolved by the identity check in {@link Key#equals(Object)}, and unequal keys are almost
+   * always told apart by their memoized structural hash.
+   */
+  Key intern(Key key) {
+    Key internedKey = internedKeys.putIfAbsent(key, key);
+    return internedKey == null ? key : internedKey;
+  }
+
+  @Override
+  public void clearCache() {
+    // Keys hold on to the round's TypeMirrors, so they can't be reused in later rounds.
+    internedKeys.clear();
+  }
+
   private TypeMirror boxPrimitives(TypeMirror type) {
     return type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
   }
@@ -122,11 +152,11 @@ public final class KeyFactory {
     checkArgument(subcomponentCreatorMethod.getKind().equals(METHOD));
     ExecutableType resolvedMethod =
         asExecutable(types.asMemberOf(declaredContainer, subcomponentCreatorMethod));
-    return Key.builder(resolvedMethod.getReturnType()).build();
+    return intern(Key.builder(resolvedMethod.getReturnType()).build());
   }
 
   public Key forSubcomponentCreator(TypeMirror creatorType) {
-    return Key.builder(creatorType).build();
+    return intern(Key.builder(creatorType).build());
   }
 
   public Key forProvidesMethod(ExecutableElement method, TypeElement contributingModule) {
@@ -180,10 +210,11 @@ public final class KeyFactory {
     Key key = forMethod(method, keyType);
     return contributionType.equals(ContributionType.UNIQUE)
         ? key
-        : key.toBuilder()
-            .multibindingContributionIdentifier(
-                new MultibindingContributionIdentifier(method, contributingModule))
-            .build();
+        : intern(
+            key.toBuilder()
+                .multibindingContributionIdentifier(
+                    new MultibindingContributionIdentifier(method, contributingModule))
+                .build());
   }
 
   /**
@@ -246,36 +277,40 @@ public final class KeyFactory {
   }
 
   public Key forInjectConstructorWithResolvedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   // TODO(ronshapiro): Remove these conveniences which are simple wrappers around Key.Builder
   Key forType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   public Key forMembersInjectedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type).build());
   }
 
   Key forQualifiedType(Optional<AnnotationMirror> qualifier, TypeMirror type) {
-    return Key.builder(boxPrimitives(type)).qualifier(qualifier).build();
+    return intern(Key.builder(boxPrimitives(type)).qualifier(qualifier).build());
   }
 
   public Key forProductionExecutor() {
-    return Key.builder(elements.getTypeElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class)))
-        .build();
+    return intern(
+        Key.builder(elements.getTypeElement(Executor.class).asType())
+            .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(Production.class)))
+            .build());
   }
 
   public Key forProductionImplementationExecutor() {
-    return Key.builder(elements.getTypeElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(elements.getTypeElement(ProductionImplementation.class)))
-        .build();
+    return intern(
+        Key.builder(elements.getTypeElement(Executor.class).asType())
+            .qualifier(
+                SimpleAnnotationMirror.of(elements.getTypeElement(ProductionImplementation.class)))
+            .build());
   }
 
   public Key forProductionComponentMonitor() {
-    return Key.builder(elements.getTypeElement(ProductionComponentMonitor.class).asType()).build();
+    return intern(
+        Key.builder(elements.getTypeElement(ProductionComponentMonitor.class).asType()).build());
   }
 
   /**
@@ -327,9 +362,10 @@ public final class KeyFactory {
       if (!mapType.isRawType()) {
         for (Class<?> frameworkClass : asList(Provider.class, Producer.class, Produced.class)) {
           if (mapType.valuesAreTypeOf(frameworkClass)) {
-            return key.toBuilder()
-                .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass)))
-                .build();
+            return intern(
+                key.toBuilder()
+                    .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass)))
+                    .build());
           }
         }
       }
@@ -372,7 +408,10 @@ public final class KeyFactory {
             types.getDeclaredType(
                 wrappingElement, mapType.unwrappedValueType(currentWrappingClass));
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(mapOf(mapType.keyType(), wrappedValueType))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -397,7 +436,10 @@ public final class KeyFactory {
         }
         DeclaredType wrappedValueType = types.getDeclaredType(wrappingElement, mapType.valueType());
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(
+                possibleMapKey.toBuilder()
+                    .type(mapOf(mapType.keyType(), wrappedValueType))
+                    .build()));
       }
     }
     return Optional.empty();
@@ -412,7 +454,8 @@ public final class KeyFactory {
       SetType setType = SetType.from(key);
       if (!setType.isRawType() && setType.elementsAreTypeOf(wrappingClass)) {
         return Optional.of(
-            key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass))).build());
+            intern(
+                key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass))).build()));
       }
     }
     return Optional.empty();
@@ -429,6 +472,6 @@ public final class KeyFactory {
     }
 
     TypeMirror optionalValueType = OptionalType.from(key).valueType();
-    return Optional.of(key.toBuilder().type(extractKeyType(optionalValueType)).build());
+    return Optional.of(intern(key.toBuilder().type(extractKeyType(optionalValueType)).build()));
   }
 }
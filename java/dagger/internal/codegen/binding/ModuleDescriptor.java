@@ -217,6 +217,18 @@ public abstract class ModuleDescriptor {
               .depthFirstPreOrder(transform(modules, this::create)));
     }
 
+    /**
+     * Returns the types of all the modules transitively included by given modules, including the
+     * arguments, in the same order as {@link #transitiveModules(Iterable)}. Unlike that method,
+     * this only reads the modules' annotations and superclasses, not their binding methods.
+     */
+    public ImmutableSet<TypeElement> transitiveModuleTypes(Iterable<TypeElement> modules) {
+      return ImmutableSet.copyOf(
+          Traverser.forGraph(
+                  (TypeElement module) -> collectIncludedModules(new LinkedHashSet<>(), module))
+              .depthFirstPreOrder(modules));
+    }
+
     @CanIgnoreReturnValue
     private Set<TypeElement> collectIncludedModules(
         Set<TypeElement> includedModules, TypeElement moduleElement) {
@@ -23,7 +23,10 @@ import static com.google.common.collect.Iterables.skip;
 import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 import static dagger.internal.codegen.base.RequestKinds.extractKeyType;
 import static dagger.internal.codegen.base.RequestKinds.getRequestKind;
+import static dagger.internal.codegen.extension.DaggerGraphs.pathInShortestPathTree;
 import static dagger.internal.codegen.extension.DaggerGraphs.shortestPath;
+import static dagger.internal.codegen.extension.DaggerGraphs.shortestPathTree;
+import static dagger.internal.codegen.extension.DaggerGraphs.stronglyConnectedComponents;
 import static dagger.internal.codegen.extension.DaggerStreams.instancesOf;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableList;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
@@ -31,10 +34,10 @@ import static javax.tools.Diagnostic.Kind.ERROR;
 
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.graph.EndpointPair;
-import com.google.common.graph.Graphs;
 import com.google.common.graph.ImmutableNetwork;
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.NetworkBuilder;
@@ -50,7 +53,9 @@ import dagger.model.DependencyRequest;
 import dagger.model.RequestKind;
 import dagger.spi.BindingGraphPlugin;
 import dagger.spi.DiagnosticReporter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -77,31 +82,65 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
   public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
     ImmutableNetwork<Node, DependencyEdge> dependencyGraph =
         nonCycleBreakingDependencyGraph(bindingGraph);
-    // First check the graph for a cycle. If there is one, then we'll do more work to report where.
-    if (!Graphs.hasCycle(dependencyGraph)) {
+    // First find the strongly connected components that contain a cycle. If there are any, then
+    // we'll do more work to report where.
+    ImmutableMap<Node, ImmutableSet<Node>> cyclicComponents =
+        cyclicComponentsByNode(dependencyGraph);
+    if (cyclicComponents.isEmpty()) {
       return;
     }
+    ShortestPathsToCycles shortestPathsToCycles = new ShortestPathsToCycles(bindingGraph);
     // Check each endpoint pair only once, no matter how many parallel edges connect them.
     Set<EndpointPair<Node>> dependencyEndpointPairs = dependencyGraph.asGraph().edges();
     Set<EndpointPair<Node>> visited = newHashSetWithExpectedSize(dependencyEndpointPairs.size());
     for (EndpointPair<Node> endpointPair : dependencyEndpointPairs) {
-      cycleContainingEndpointPair(endpointPair, dependencyGraph, visited)
-          .ifPresent(cycle -> reportCycle(cycle, bindingGraph, diagnosticReporter));
+      // An edge is part of a cycle exactly when both of its endpoints are in the same cyclic
+      // component.
+      ImmutableSet<Node> component = cyclicComponents.get(endpointPair.source());
+      if (component == null || !component.contains(endpointPair.target())) {
+        continue;
+      }
+      cycleContainingEndpointPair(endpointPair, dependencyGraph, component, visited)
+          .ifPresent(
+              cycle -> reportCycle(cycle, bindingGraph, shortestPathsToCycles, diagnosticReporter));
     }
   }
 
+  /**
+   * Returns the strongly connected components of {@code dependencyGraph} that contain a cycle,
+   * indexed by each of their nodes. Those are the components with more than one node, and
+   * single-node components whose node depends on itself.
+   */
+  private static ImmutableMap<Node, ImmutableSet<Node>> cyclicComponentsByNode(
+      ImmutableNetwork<Node, DependencyEdge> dependencyGraph) {
+    ImmutableMap.Builder<Node, ImmutableSet<Node>> cyclicComponents = ImmutableMap.builder();
+    for (ImmutableSet<Node> component :
+        stronglyConnectedComponents(dependencyGraph.nodes(), dependencyGraph)) {
+      Node someNode = component.iterator().next();
+      if (component.size() > 1 || dependencyGraph.successors(someNode).contains(someNode)) {
+        component.forEach(node -> cyclicComponents.put(node, component));
+      }
+    }
+    return cyclicComponents.build();
+  }
+
   private Optional<Cycle<Node>> cycleContainingEndpointPair(
       EndpointPair<Node> endpoints,
       ImmutableNetwork<Node, DependencyEdge> dependencyGraph,
+      ImmutableSet<Node> component,
       Set<EndpointPair<Node>> visited) {
     if (!visited.add(endpoints)) {
       // don't recheck endpoints we already know are part of a cycle
       return Optional.empty();
     }
 
-    // If there's a path from the target back to the source, there's a cycle.
+    // If there's a path from the target back to the source, there's a cycle. Every such path stays
+    // within the endpoints' strongly connected component, so the search doesn't need to leave it.
     ImmutableList<Node> cycleNodes =
-        shortestPath(dependencyGraph, endpoints.target(), endpoints.source());
+        shortestPath(
+            node -> Iterables.filter(dependencyGraph.successors(node), component::contains),
+            endpoints.target(),
+            endpoints.source());
     if (cycleNodes.isEmpty()) {
       return Optional.empty();
     }
@@ -128,7 +167,10 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
    * components, so that binding cannot depend on the next binding in the cycle.
    */
   private void reportCycle(
-      Cycle<Node> cycle, BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
+      Cycle<Node> cycle,
+      BindingGraph bindingGraph,
+      ShortestPathsToCycles shortestPathsToCycles,
+      DiagnosticReporter diagnosticReporter) {
     if (bindingGraph.isFullBindingGraph()) {
       diagnosticReporter.reportComponent(
           ERROR,
@@ -137,7 +179,7 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
       return;
     }
 
-    ImmutableList<Node> path = shortestPathToCycleFromAnEntryPoint(cycle, bindingGraph);
+    ImmutableList<Node> path = shortestPathsToCycles.shortestPathToCycleFromAnEntryPoint(cycle);
     Node cycleStartNode = path.get(path.size() - 1);
     Node previousNode = path.get(path.size() - 2);
     DependencyEdge dependencyToReport =
@@ -146,30 +188,47 @@ final class DependencyCycleValidator implements BindingGraphPlugin {
         ERROR, dependencyToReport, errorMessage(cycle.shift(cycleStartNode), bindingGraph));
   }
 
-  private ImmutableList<Node> shortestPathToCycleFromAnEntryPoint(
-      Cycle<Node> cycle, BindingGraph bindingGraph) {
-    Node someCycleNode = cycle.nodes().asList().get(0);
-    ComponentNode componentContainingCycle =
-        bindingGraph.componentNode(someCycleNode.componentPath()).get();
-    ImmutableList<Node> pathToCycle =
-        shortestPath(bindingGraph.network(), componentContainingCycle, someCycleNode);
-    return subpathToCycle(pathToCycle, cycle);
-  }
-
   /**
-   * Returns the subpath from the head of {@code path} to the first node in {@code path} that's in
-   * the cycle.
+   * Finds the shortest paths from components to the cycles they contain. The breadth-first search
+   * from each component is done once and shared by all of the cycles in that component.
    */
-  private ImmutableList<Node> subpathToCycle(ImmutableList<Node> path, Cycle<Node> cycle) {
-    ImmutableList.Builder<Node> subpath = ImmutableList.builder();
-    for (Node node : path) {
-      subpath.add(node);
-      if (cycle.nodes().contains(node)) {
-        return subpath.build();
+  private static final class ShortestPathsToCycles {
+    private final BindingGraph bindingGraph;
+    private final Map<ComponentNode, ImmutableMap<Node, Node>> shortestPathTrees = new HashMap<>();
+
+    ShortestPathsToCycles(BindingGraph bindingGraph) {
+      this.bindingGraph = bindingGraph;
+    }
+
+    ImmutableList<Node> shortestPathToCycleFromAnEntryPoint(Cycle<Node> cycle) {
+      Node someCycleNode = cycle.nodes().asList().get(0);
+      ComponentNode componentContainingCycle =
+          bindingGraph.componentNode(someCycleNode.componentPath()).get();
+      ImmutableList<Node> pathToCycle =
+          pathInShortestPathTree(
+              shortestPathTrees.computeIfAbsent(
+                  componentContainingCycle,
+                  component -> shortestPathTree(bindingGraph.network(), component)),
+              componentContainingCycle,
+              someCycleNode);
+      return subpathToCycle(pathToCycle, cycle);
+    }
+
+    /**
+     * Returns the subpath from the head of {@code path} to the first node in {@code path} that's
+     * in the cycle.
+     */
+    private static ImmutableList<Node> subpathToCycle(ImmutableList<Node> path, Cycle<Node> cycle) {
+      ImmutableList.Builder<Node> subpath = ImmutableList.builder();
+      for (Node node : path) {
+        subpath.add(node);
+        if (cycle.nodes().contains(node)) {
+          return subpath.build();
+        }
       }
+      throw new IllegalArgumentException(
+          "path " + path + " doesn't contain any nodes in cycle " + cycle);
     }
-    throw new IllegalArgumentException(
-        "path " + path + " doesn't contain any nodes in cycle " + cycle);
   }
 
   private String errorMessage(Cycle<Node> cycle, BindingGraph graph) {
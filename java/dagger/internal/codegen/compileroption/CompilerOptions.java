@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen.compileroption;
 
+import java.util.Optional;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 
@@ -33,6 +34,36 @@ public abstract class CompilerOptions {
    */
   public abstract boolean fastInit(TypeElement element);
 
+  /**
+   * Returns true if scoped bindings reachable from the component's entry points should be
+   * initialized eagerly, {@code eagerlyInitializeScopedBindings}.
+   *
+   * <p>If enabled, eligible scoped bindings are created once in the component's constructor, in
+   * dependency order, and stored in a plain component field. Requests for them then read the field
+   * directly instead of going through a {@link dagger.internal.DoubleCheck} or a double-checked
+   * private method.
+   */
+  public abstract boolean eagerlyInitializeScopedBindings(TypeElement element);
+
+  /**
+   * Returns true if {@link dagger.Reusable @Reusable} bindings without dependencies should share a
+   * single static instance, {@code staticReusableInstances}.
+   *
+   * <p>If enabled, requests for such bindings read a lazily initialized static field in the
+   * binding's generated factory, so every component in the class loader uses the same instance
+   * instead of caching one per component.
+   */
+  public abstract boolean staticReusableInstances(TypeElement element);
+
+  /**
+   * Returns true if {@code @Provides} methods that return a compile-time constant should be inlined,
+   * {@code inlineConstantProvisions}.
+   *
+   * <p>If enabled, instance requests for a static {@code @Provides} method without dependencies
+   * whose body returns a literal use the literal directly instead of calling the method.
+   */
+  public abstract boolean inlineConstantProvisions(TypeElement element);
+
   public abstract boolean formatGeneratedSource();
 
   public abstract boolean writeProducerNameInToken();
@@ -91,11 +122,26 @@ public abstract class CompilerOptions {
 
   public abstract boolean experimentalDaggerErrorMessages();
 
-  /** Returns the number of bindings allowed per shard. */
+  /**
+   * Returns the maximum number of bindings per component shard, {@code keysPerComponentShard}.
+   *
+   * <p>Components that own more bindings than this have some of their bindings' methods and fields
+   * moved into nested shard classes, which keeps each generated class below the class file's
+   * constant pool and method size limits. Bindings that depend on each other cyclically are always
+   * placed in the same shard, even if that shard then exceeds this limit.
+   */
   public int keysPerComponentShard(TypeElement component) {
     return 3500;
   }
 
+  /**
+   * Returns the path to write a trace of the processor's own work to, if one was requested with
+   * {@code -Adagger.profile}.
+   */
+  public Optional<String> profilePath() {
+    return Optional.empty();
+  }
+
   /**
    * This option enables a fix to an issue where Dagger previously would erroneously allow
    * multibinding contributions in a component to have dependencies on child components. This will
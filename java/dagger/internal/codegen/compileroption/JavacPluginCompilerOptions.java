@@ -39,6 +39,21 @@ public final class JavacPluginCompilerOptions extends CompilerOptions {
     return false;
   }
 
+  @Override
+  public boolean eagerlyInitializeScopedBindings(TypeElement element) {
+    return false;
+  }
+
+  @Override
+  public boolean staticReusableInstances(TypeElement element) {
+    return false;
+  }
+
+  @Override
+  public boolean inlineConstantProvisions(TypeElement element) {
+    return false;
+  }
+
   @Override
   public boolean formatGeneratedSource() {
     return false;
@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Sets.immutableEnumSet;
 import static dagger.internal.codegen.compileroption.FeatureStatus.DISABLED;
 import static dagger.internal.codegen.compileroption.FeatureStatus.ENABLED;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.EAGERLY_INITIALIZE_SCOPED_BINDINGS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.EXPERIMENTAL_AHEAD_OF_TIME_SUBCOMPONENTS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.EXPERIMENTAL_ANDROID_MODE;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.EXPERIMENTAL_DAGGER_ERROR_MESSAGES;
@@ -29,7 +30,9 @@ import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompil
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.FLOATING_BINDS_METHODS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.FORMAT_GENERATED_SOURCE;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.IGNORE_PRIVATE_AND_STATIC_INJECTION_FOR_COMPONENT;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.INLINE_CONSTANT_PROVISIONS;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.PLUGINS_VISIT_FULL_BINDING_GRAPHS;
+import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.STATIC_REUSABLE_INSTANCES;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.STRICT_MULTIBINDING_VALIDATION;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES;
 import static dagger.internal.codegen.compileroption.ProcessingEnvironmentCompilerOptions.Feature.WARN_IF_INJECTION_FACTORY_NOT_GENERATED_UPSTREAM;
@@ -50,7 +53,6 @@ import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Stream.concat;
 
-import com.google.auto.common.MoreElements;
 import com.google.common.base.Ascii;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -72,13 +74,18 @@ import javax.tools.Diagnostic;
 /** {@link CompilerOptions} for the given {@link ProcessingEnvironment}. */
 public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions {
   // EnumOption<T> doesn't support integer inputs so just doing this as a 1-off for now.
+  // The value is the maximum number of bindings per component shard; see
+  // CompilerOptions#keysPerComponentShard.
   private static final String KEYS_PER_COMPONENT_SHARD = "dagger.keysPerComponentShard";
+  // The path of the processor's profiling report; see CompilerOptions#profilePath.
+  private static final String PROFILE = "dagger.profile";
 
   private final ProcessingEnvironment processingEnvironment;
   private final DaggerElements daggerElements;
   private final Map<EnumOption<?>, Object> enumOptions = new HashMap<>();
   private final Map<EnumOption<?>, ImmutableMap<String, ? extends Enum<?>>> allCommandLineOptions =
       new HashMap<>();
+  private Optional<Integer> keysPerComponentShard;
 
   @Inject
   ProcessingEnvironmentCompilerOptions(
@@ -104,6 +111,21 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
     return isEnabled(FAST_INIT);
   }
 
+  @Override
+  public boolean eagerlyInitializeScopedBindings(TypeElement component) {
+    return isEnabled(EAGERLY_INITIALIZE_SCOPED_BINDINGS);
+  }
+
+  @Override
+  public boolean staticReusableInstances(TypeElement component) {
+    return isEnabled(STATIC_REUSABLE_INSTANCES);
+  }
+
+  @Override
+  public boolean inlineConstantProvisions(TypeElement component) {
+    return isEnabled(INLINE_CONSTANT_PROVISIONS);
+  }
+
   @Override
   public boolean formatGeneratedSource() {
     return isEnabled(FORMAT_GENERATED_SOURCE);
@@ -181,15 +203,13 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
 
   @Override
   public int keysPerComponentShard(TypeElement component) {
-    if (processingEnvironment.getOptions().containsKey(KEYS_PER_COMPONENT_SHARD)) {
-      checkArgument(
-          "dagger.internal.codegen".contentEquals(
-              MoreElements.getPackage(component).getQualifiedName()),
-          "Cannot set %s. It is only meant for internal testing.", KEYS_PER_COMPONENT_SHARD);
-      return Integer.parseInt(
-          processingEnvironment.getOptions().get(KEYS_PER_COMPONENT_SHARD));
-    }
-    return super.keysPerComponentShard(component);
+    return parseKeysPerComponentShard().orElseGet(() -> super.keysPerComponentShard(component));
+  }
+
+  @Override
+  public Optional<String> profilePath() {
+    return Optional.ofNullable(processingEnvironment.getOptions().get(PROFILE))
+        .filter(path -> !path.isEmpty());
   }
 
   private boolean isEnabled(KeyOnlyOption keyOnlyOption) {
@@ -215,6 +235,8 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
     for (Validation validation : Validation.values()) {
       parseOption(validation);
     }
+    parseKeysPerComponentShard();
+    checkProfilePath();
     noLongerRecognized(EXPERIMENTAL_ANDROID_MODE);
     noLongerRecognized(FLOATING_BINDS_METHODS);
     noLongerRecognized(EXPERIMENTAL_AHEAD_OF_TIME_SUBCOMPONENTS);
@@ -222,6 +244,50 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
     return this;
   }
 
+  /**
+   * Returns the value of {@code -Adagger.keysPerComponentShard}, or {@link Optional#empty()} if it
+   * is not set or is not a positive integer. Reports an error in the latter case.
+   */
+  private Optional<Integer> parseKeysPerComponentShard() {
+    if (keysPerComponentShard == null) {
+      keysPerComponentShard = parseKeysPerComponentShardUncached();
+    }
+    return keysPerComponentShard;
+  }
+
+  private Optional<Integer> parseKeysPerComponentShardUncached() {
+    if (!processingEnvironment.getOptions().containsKey(KEYS_PER_COMPONENT_SHARD)) {
+      return Optional.empty();
+    }
+    String stringValue = processingEnvironment.getOptions().get(KEYS_PER_COMPONENT_SHARD);
+    try {
+      int value = Integer.parseInt(stringValue);
+      if (value > 0) {
+        return Optional.of(value);
+      }
+    } catch (NumberFormatException e) {
+      // handled below
+    }
+    processingEnvironment
+        .getMessager()
+        .printMessage(
+            Diagnostic.Kind.ERROR,
+            String.format(
+                "Processor option -A%s must be a positive integer, found: %s",
+                KEYS_PER_COMPONENT_SHARD, stringValue));
+    return Optional.empty();
+  }
+
+  private void checkProfilePath() {
+    if (processingEnvironment.getOptions().containsKey(PROFILE) && !profilePath().isPresent()) {
+      processingEnvironment
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR,
+              String.format("Processor option -A%s must be set to a file path", PROFILE));
+    }
+  }
+
   private void noLongerRecognized(CommandLineOption commandLineOption) {
     if (processingEnvironment.getOptions().containsKey(commandLineOption.toString())) {
       processingEnvironment
@@ -306,7 +372,13 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
 
     STRICT_MULTIBINDING_VALIDATION,
 
-    VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES(ENABLED)
+    VALIDATE_TRANSITIVE_COMPONENT_DEPENDENCIES(ENABLED),
+
+    EAGERLY_INITIALIZE_SCOPED_BINDINGS,
+
+    STATIC_REUSABLE_INSTANCES,
+
+    INLINE_CONSTANT_PROVISIONS,
     ;
 
     final FeatureStatus defaultValue;
@@ -409,6 +481,7 @@ public final class ProcessingEnvironmentCompilerOptions extends CompilerOptions
             .flatMap(CommandLineOption::allNames)
             .collect(toImmutableSet()))
         .add(KEYS_PER_COMPONENT_SHARD)
+        .add(PROFILE)
         .build();
   }
 
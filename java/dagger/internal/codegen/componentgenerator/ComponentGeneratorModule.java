@@ -20,7 +20,7 @@ import dagger.Binds;
 import dagger.Module;
 import dagger.internal.codegen.base.SourceFileGenerator;
 import dagger.internal.codegen.binding.BindingGraph;
-import dagger.internal.codegen.binding.ComponentDescriptor;
+import javax.lang.model.element.TypeElement;
 
 /** Provides bindings needed to generated the component. */
 @Module(subcomponents = TopLevelImplementationComponent.class)
@@ -37,6 +37,6 @@ public interface ComponentGeneratorModule {
   // ComponentHjarGenerator, for when generating hjars for components, which can avoid generating
   // the parts of the component that would have been stripped out by the HjarSourceFileGenerator.
   @Binds
-  abstract SourceFileGenerator<ComponentDescriptor> componentHjarGenerator(
+  abstract SourceFileGenerator<TypeElement> componentHjarGenerator(
       ComponentHjarGenerator hjarGenerator);
 }
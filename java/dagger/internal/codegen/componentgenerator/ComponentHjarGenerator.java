@@ -21,7 +21,11 @@ import static com.google.common.base.CaseFormat.LOWER_CAMEL;
 import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.squareup.javapoet.MethodSpec.constructorBuilder;
+import static dagger.internal.codegen.base.ComponentAnnotation.rootComponentAnnotation;
+import static dagger.internal.codegen.binding.ComponentCreatorAnnotation.creatorAnnotationsFor;
+import static dagger.internal.codegen.binding.ComponentCreatorAnnotation.getCreatorAnnotations;
 import static dagger.internal.codegen.binding.ComponentCreatorKind.BUILDER;
+import static dagger.internal.codegen.binding.ConfigurationAnnotations.enclosedAnnotatedTypes;
 import static dagger.internal.codegen.componentgenerator.ComponentGenerator.componentName;
 import static dagger.internal.codegen.javapoet.TypeSpecs.addSupertype;
 import static dagger.internal.codegen.langmodel.Accessibility.isElementAccessibleFrom;
@@ -34,21 +38,23 @@ import static javax.lang.model.element.Modifier.STATIC;
 import com.google.auto.common.MoreTypes;
 import com.google.common.base.Ascii;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import dagger.BindsInstance;
+import dagger.internal.codegen.base.ComponentAnnotation;
 import dagger.internal.codegen.base.SourceFileGenerator;
-import dagger.internal.codegen.binding.ComponentCreatorDescriptor;
 import dagger.internal.codegen.binding.ComponentCreatorKind;
-import dagger.internal.codegen.binding.ComponentDescriptor;
 import dagger.internal.codegen.binding.ComponentRequirement;
+import dagger.internal.codegen.binding.ModuleDescriptor;
 import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
 import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.internal.codegen.langmodel.DaggerTypes;
 import dagger.producers.internal.CancellationListener;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.processing.Filer;
@@ -71,11 +77,16 @@ import javax.lang.model.type.DeclaredType;
  *
  * <p>The components emitted by this processing step include all of the API elements exposed by the
  * normal step. Method bodies are omitted as Turbine ignores them entirely.
+ *
+ * <p>The API is derived from the declarations of the component, its creator and the modules it
+ * includes alone; no {@link dagger.internal.codegen.binding.ComponentDescriptor} is created, so
+ * binding methods and subcomponents are never read.
  */
-final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescriptor> {
+final class ComponentHjarGenerator extends SourceFileGenerator<TypeElement> {
   private final DaggerElements elements;
   private final DaggerTypes types;
   private final KotlinMetadataUtil metadataUtil;
+  private final ModuleDescriptor.Factory moduleDescriptorFactory;
 
   @Inject
   ComponentHjarGenerator(
@@ -83,46 +94,51 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
       DaggerElements elements,
       DaggerTypes types,
       SourceVersion sourceVersion,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      ModuleDescriptor.Factory moduleDescriptorFactory) {
     super(filer, elements, sourceVersion);
     this.elements = elements;
     this.types = types;
     this.metadataUtil = metadataUtil;
+    this.moduleDescriptorFactory = moduleDescriptorFactory;
   }
 
   @Override
-  public Element originatingElement(ComponentDescriptor input) {
-    return input.typeElement();
+  public Element originatingElement(TypeElement componentElement) {
+    return componentElement;
   }
 
   @Override
-  public ImmutableList<TypeSpec.Builder> topLevelTypes(ComponentDescriptor componentDescriptor) {
-    ClassName generatedTypeName = componentName(componentDescriptor.typeElement());
+  public ImmutableList<TypeSpec.Builder> topLevelTypes(TypeElement componentElement) {
+    ComponentAnnotation componentAnnotation = rootComponentAnnotation(componentElement).get();
+    ClassName generatedTypeName = componentName(componentElement);
     TypeSpec.Builder generatedComponent =
         TypeSpec.classBuilder(generatedTypeName)
             .addModifiers(FINAL)
             .addMethod(privateConstructor());
-    if (componentDescriptor.typeElement().getModifiers().contains(PUBLIC)) {
+    if (componentElement.getModifiers().contains(PUBLIC)) {
       generatedComponent.addModifiers(PUBLIC);
     }
 
-    TypeElement componentElement = componentDescriptor.typeElement();
     addSupertype(generatedComponent, componentElement);
 
+    Optional<TypeElement> creator = creator(componentElement, componentAnnotation);
     TypeName builderMethodReturnType;
     ComponentCreatorKind creatorKind;
     boolean noArgFactoryMethod;
-    if (componentDescriptor.creatorDescriptor().isPresent()) {
-      ComponentCreatorDescriptor creatorDescriptor = componentDescriptor.creatorDescriptor().get();
-      builderMethodReturnType = ClassName.get(creatorDescriptor.typeElement());
-      creatorKind = creatorDescriptor.kind();
-      noArgFactoryMethod = creatorDescriptor.factoryParameters().isEmpty();
+    if (creator.isPresent()) {
+      builderMethodReturnType = ClassName.get(creator.get());
+      creatorKind = getCreatorAnnotations(creator.get()).iterator().next().creatorKind();
+      noArgFactoryMethod =
+          creatorKind.equals(BUILDER)
+              || elements.getUnimplementedMethods(creator.get()).stream()
+                  .allMatch(method -> method.getParameters().isEmpty());
     } else {
       TypeSpec.Builder builder =
           TypeSpec.classBuilder("Builder")
               .addModifiers(STATIC, FINAL)
               .addMethod(privateConstructor());
-      if (componentDescriptor.typeElement().getModifiers().contains(PUBLIC)) {
+      if (componentElement.getModifiers().contains(PUBLIC)) {
         builder.addModifiers(PUBLIC);
       }
 
@@ -130,39 +146,39 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
       builderMethodReturnType = builderClassName;
       creatorKind = BUILDER;
       noArgFactoryMethod = true;
-      componentRequirements(componentDescriptor)
+      componentRequirements(componentElement, componentAnnotation)
           .map(requirement -> builderSetterMethod(requirement.typeElement(), builderClassName))
           .forEach(builder::addMethod);
-      builder.addMethod(builderBuildMethod(componentDescriptor));
+      builder.addMethod(builderBuildMethod(componentElement));
       generatedComponent.addType(builder.build());
     }
 
     generatedComponent.addMethod(staticCreatorMethod(builderMethodReturnType, creatorKind));
 
     if (noArgFactoryMethod
-        && !hasBindsInstanceMethods(componentDescriptor)
-        && componentRequirements(componentDescriptor)
+        && !hasBindsInstanceMethods(creator)
+        && componentRequirements(componentElement, componentAnnotation)
             .noneMatch(
                 requirement -> requirement.requiresAPassedInstance(elements, metadataUtil))) {
-      generatedComponent.addMethod(createMethod(componentDescriptor));
+      generatedComponent.addMethod(createMethod(componentElement));
     }
 
     DeclaredType componentType = MoreTypes.asDeclared(componentElement.asType());
     // TODO(ronshapiro): unify with ComponentImplementationBuilder
+    ImmutableSet<ExecutableElement> componentMethods =
+        elements.getUnimplementedMethods(componentElement);
     Set<MethodSignature> methodSignatures =
-        Sets.newHashSetWithExpectedSize(componentDescriptor.componentMethods().size());
-    componentDescriptor.componentMethods().stream()
+        Sets.newHashSetWithExpectedSize(componentMethods.size());
+    componentMethods.stream()
         .filter(
             method -> {
               return methodSignatures.add(
                   MethodSignature.forComponentMethod(method, componentType, types));
             })
         .forEach(
-            method ->
-                generatedComponent.addMethod(
-                    emptyComponentMethod(componentElement, method.methodElement())));
+            method -> generatedComponent.addMethod(emptyComponentMethod(componentElement, method)));
 
-    if (componentDescriptor.isProduction()) {
+    if (componentAnnotation.isProduction()) {
       generatedComponent
           .addSuperinterface(ClassName.get(CancellationListener.class))
           .addMethod(onProducerFutureCancelledMethod());
@@ -171,6 +187,18 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
     return ImmutableList.of(generatedComponent);
   }
 
+  /**
+   * Returns the creator type nested in a component, if any. If there is more than one, the normal
+   * compilation will report it; this just picks the first.
+   */
+  private static Optional<TypeElement> creator(
+      TypeElement componentElement, ComponentAnnotation componentAnnotation) {
+    return creatorAnnotationsFor(componentAnnotation).stream()
+        .flatMap(annotation -> enclosedAnnotatedTypes(componentElement, annotation).stream())
+        .map(MoreTypes::asTypeElement)
+        .findFirst();
+  }
+
   private MethodSpec emptyComponentMethod(TypeElement typeElement, ExecutableElement baseMethod) {
     return MethodSpec.overriding(baseMethod, MoreTypes.asDeclared(typeElement.asType()), types)
         .build();
@@ -181,31 +209,30 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
   }
 
   /**
-   * Returns the {@link ComponentRequirement}s for a component that does not have a {@link
-   * ComponentDescriptor#creatorDescriptor()}.
+   * Returns the {@link ComponentRequirement}s for a component that does not have a creator. The
+   * modules are found by following their {@code includes} without creating their {@link
+   * ModuleDescriptor}s, which would read every binding method.
    */
-  private static Stream<ComponentRequirement> componentRequirements(ComponentDescriptor component) {
+  private Stream<ComponentRequirement> componentRequirements(
+      TypeElement componentElement, ComponentAnnotation componentAnnotation) {
     // TODO(b/152802759): See if you can merge logics that normal component processing and hjar
     // component processing use. So that there would't be a duplicated logic (like the lines below)
     // everytime we modify the generated code for the component.
-    checkArgument(!component.isSubcomponent());
+    checkArgument(!componentAnnotation.isSubcomponent());
     return Stream.concat(
-        component.dependencies().stream(),
-        component.modules().stream()
+        componentAnnotation.dependencyTypes().stream().map(ComponentRequirement::forDependency),
+        moduleDescriptorFactory.transitiveModuleTypes(componentAnnotation.modules()).stream()
             .filter(
                 module ->
-                    !module.moduleElement().getModifiers().contains(ABSTRACT)
+                    !module.getModifiers().contains(ABSTRACT)
                         && isElementAccessibleFrom(
-                            module.moduleElement(),
-                            ClassName.get(component.typeElement()).packageName()))
-            .map(module -> ComponentRequirement.forModule(module.moduleElement().asType())));
+                            module, ClassName.get(componentElement).packageName()))
+            .map(module -> ComponentRequirement.forModule(module.asType())));
   }
 
-  private boolean hasBindsInstanceMethods(ComponentDescriptor componentDescriptor) {
-    return componentDescriptor.creatorDescriptor().isPresent()
-        && elements
-            .getUnimplementedMethods(componentDescriptor.creatorDescriptor().get().typeElement())
-            .stream()
+  private boolean hasBindsInstanceMethods(Optional<TypeElement> creator) {
+    return creator.isPresent()
+        && elements.getUnimplementedMethods(creator.get()).stream()
             .anyMatch(method -> isBindsInstance(method));
   }
 
@@ -232,10 +259,10 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
         .build();
   }
 
-  private static MethodSpec builderBuildMethod(ComponentDescriptor component) {
+  private static MethodSpec builderBuildMethod(TypeElement componentElement) {
     return MethodSpec.methodBuilder("build")
         .addModifiers(PUBLIC)
-        .returns(ClassName.get(component.typeElement()))
+        .returns(ClassName.get(componentElement))
         .build();
   }
 
@@ -247,10 +274,10 @@ final class ComponentHjarGenerator extends SourceFileGenerator<ComponentDescript
         .build();
   }
 
-  private static MethodSpec createMethod(ComponentDescriptor componentDescriptor) {
+  private static MethodSpec createMethod(TypeElement componentElement) {
     return MethodSpec.methodBuilder("create")
         .addModifiers(PUBLIC, STATIC)
-        .returns(ClassName.get(componentDescriptor.typeElement()))
+        .returns(ClassName.get(componentElement))
         .build();
   }
 
@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableList;
 import dagger.internal.codegen.binding.ComponentDescriptor.ComponentMethodDescriptor;
 import dagger.internal.codegen.langmodel.DaggerTypes;
 import java.util.List;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.TypeMirror;
@@ -41,10 +42,15 @@ abstract class MethodSignature {
 
   static MethodSignature forComponentMethod(
       ComponentMethodDescriptor componentMethod, DeclaredType componentType, DaggerTypes types) {
+    return forComponentMethod(componentMethod.methodElement(), componentType, types);
+  }
+
+  static MethodSignature forComponentMethod(
+      ExecutableElement componentMethod, DeclaredType componentType, DaggerTypes types) {
     ExecutableType methodType =
-        MoreTypes.asExecutable(types.asMemberOf(componentType, componentMethod.methodElement()));
+        MoreTypes.asExecutable(types.asMemberOf(componentType, componentMethod));
     return new AutoValue_MethodSignature(
-        componentMethod.methodElement().getSimpleName().toString(),
+        componentMethod.getSimpleName().toString(),
         wrapInEquivalence(methodType.getParameterTypes()),
         wrapInEquivalence(methodType.getThrownTypes()));
   }
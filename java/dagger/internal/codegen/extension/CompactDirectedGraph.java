@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.extension;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An immutable directed graph whose nodes are numbered densely from {@code 0} and whose adjacency
+ * lists are stored in compressed sparse row form: one array of all predecessors ordered by node
+ * number, plus an array of offsets into it for each node.
+ *
+ * <p>Traversals over node numbers don't hash nodes or allocate per visited node, which makes them
+ * much cheaper than traversals of a {@link Network} on large graphs.
+ */
+public final class CompactDirectedGraph<N> {
+  private final Map<N, Integer> indexes;
+  private final int[] predecessorOffsets;
+  private final int[] predecessors;
+
+  /**
+   * Returns a compact copy of the nodes of {@code network} and those of its edges that match
+   * {@code edgeFilter}. Nodes are numbered in the order of {@link Network#nodes()}.
+   */
+  public static <N, E> CompactDirectedGraph<N> copyOf(
+      Network<N, E> network, Predicate<? super E> edgeFilter) {
+    checkArgument(network.isDirected(), "network must be directed: %s", network);
+    Map<N, Integer> indexes = new HashMap<>();
+    for (N node : network.nodes()) {
+      indexes.put(node, indexes.size());
+    }
+
+    int edgeCount = 0;
+    int[] inDegrees = new int[indexes.size()];
+    for (E edge : network.edges()) {
+      if (edgeFilter.test(edge)) {
+        inDegrees[indexes.get(network.incidentNodes(edge).target())]++;
+        edgeCount++;
+      }
+    }
+
+    int[] predecessorOffsets = new int[indexes.size() + 1];
+    for (int i = 0; i < inDegrees.length; i++) {
+      predecessorOffsets[i + 1] = predecessorOffsets[i] + inDegrees[i];
+    }
+    int[] predecessors = new int[edgeCount];
+    // Reuse the degree array as the next free position in each node's row.
+    System.arraycopy(predecessorOffsets, 0, inDegrees, 0, inDegrees.length);
+    for (E edge : network.edges()) {
+      if (edgeFilter.test(edge)) {
+        EndpointPair<N> endpoints = network.incidentNodes(edge);
+        predecessors[inDegrees[indexes.get(endpoints.target())]++] =
+            indexes.get(endpoints.source());
+      }
+    }
+    return new CompactDirectedGraph<>(indexes, predecessorOffsets, predecessors);
+  }
+
+  private CompactDirectedGraph(
+      Map<N, Integer> indexes, int[] predecessorOffsets, int[] predecessors) {
+    this.indexes = indexes;
+    this.predecessorOffsets = predecessorOffsets;
+    this.predecessors = predecessors;
+  }
+
+  /**
+   * Returns the number of a node.
+   *
+   * @throws IllegalArgumentException if {@code node} is not in this graph
+   */
+  public int index(N node) {
+    Integer index = indexes.get(node);
+    checkArgument(index != null, "%s is not in this graph", node);
+    return index;
+  }
+
+  /** Returns the numbers of the nodes from which a node can be reached, including itself. */
+  public BitSet nodesReaching(int node) {
+    BitSet visited = new BitSet(indexes.size());
+    int[] stack = new int[indexes.size()];
+    int size = 0;
+    visited.set(node);
+    stack[size++] = node;
+    while (size > 0) {
+      int current = stack[--size];
+      for (int i = predecessorOffsets[current]; i < predecessorOffsets[current + 1]; i++) {
+        int predecessor = predecessors[i];
+        if (!visited.get(predecessor)) {
+          visited.set(predecessor);
+          stack[size++] = predecessor;
+        }
+      }
+    }
+    return visited;
+  }
+}
@@ -20,11 +20,15 @@ import static com.google.common.collect.Sets.difference;
 import static com.google.common.graph.Graphs.reachableNodes;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.graph.Graph;
 import com.google.common.graph.SuccessorsFunction;
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -89,10 +93,141 @@ public final class DaggerGraphs {
     return ImmutableList.of();
   }
 
+  /**
+   * Returns a shortest-path tree of the nodes reachable from {@code root} in {@code graph}, as a
+   * map from each reachable node other than {@code root} to its predecessor on a shortest path
+   * from {@code root}. Use {@link #pathInShortestPathTree(Map, Object, Object)} to read a path
+   * from it.
+   *
+   * <p>The tree is built by the same breadth-first traversal as {@link #shortestPath}, so the path
+   * it gives to any node is the same path that {@code shortestPath} would return. Computing the
+   * tree once is cheaper than calling {@code shortestPath} for many target nodes.
+   */
+  public static <N> ImmutableMap<N, N> shortestPathTree(SuccessorsFunction<N> graph, N root) {
+    Map<N, N> visitedNodeToPathPredecessor = new HashMap<>();
+    Queue<N> queue = new ArrayDeque<>();
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      N currentNode = queue.remove();
+      for (N nextNode : graph.successors(currentNode)) {
+        if (!nextNode.equals(root) && !visitedNodeToPathPredecessor.containsKey(nextNode)) {
+          visitedNodeToPathPredecessor.put(nextNode, currentNode);
+          queue.add(nextNode);
+        }
+      }
+    }
+    return ImmutableMap.copyOf(visitedNodeToPathPredecessor);
+  }
+
+  /**
+   * Returns the path from {@code root} to {@code node} in a {@linkplain #shortestPathTree
+   * shortest-path tree} rooted at {@code root}, including both {@code root} and {@code node}. If
+   * {@code node} is not in the tree, the list returned is empty.
+   */
+  public static <N> ImmutableList<N> pathInShortestPathTree(Map<N, N> tree, N root, N node) {
+    if (node.equals(root)) {
+      return ImmutableList.of(root);
+    }
+    if (!tree.containsKey(node)) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<N> path = ImmutableList.builder();
+    for (N current = node; !current.equals(root); current = tree.get(current)) {
+      path.add(current);
+    }
+    return path.add(root).build().reverse();
+  }
+
   /** Returns the nodes in a graph that are not reachable from a node. */
   public static <N> ImmutableSet<N> unreachableNodes(Graph<N> graph, N node) {
     return ImmutableSet.copyOf(difference(graph.nodes(), reachableNodes(graph, node)));
   }
 
+  /**
+   * Returns the strongly connected components of the part of {@code graph} that is reachable from
+   * {@code roots}, computed with Tarjan's algorithm in a single depth-first traversal.
+   *
+   * <p>The components are returned in reverse topological order: every component appears after all
+   * of the components that it has edges to. The roots are visited in iteration order, and the nodes
+   * within each component are in the order they were first visited, so the result is deterministic
+   * as long as {@code roots} and the successors of each node are.
+   *
+   * <p>The traversal is iterative, so it does not overflow the stack on deep graphs.
+   */
+  public static <N> ImmutableList<ImmutableSet<N>> stronglyConnectedComponents(
+      Iterable<? extends N> roots, SuccessorsFunction<N> graph) {
+    Map<N, Integer> indexes = new HashMap<>();
+    Map<N, Integer> lowLinks = new HashMap<>();
+    Deque<N> componentStack = new ArrayDeque<>();
+    Set<N> onComponentStack = new HashSet<>();
+    Deque<DepthFirstFrame<N>> depthFirstStack = new ArrayDeque<>();
+    ImmutableList.Builder<ImmutableSet<N>> components = ImmutableList.builder();
+
+    for (N root : roots) {
+      if (indexes.containsKey(root)) {
+        continue;
+      }
+      depthFirstStack.push(
+          visit(root, graph, indexes, lowLinks, componentStack, onComponentStack));
+      while (!depthFirstStack.isEmpty()) {
+        DepthFirstFrame<N> frame = depthFirstStack.peek();
+        if (frame.successors.hasNext()) {
+          N successor = frame.successors.next();
+          if (!indexes.containsKey(successor)) {
+            depthFirstStack.push(
+                visit(successor, graph, indexes, lowLinks, componentStack, onComponentStack));
+          } else if (onComponentStack.contains(successor)) {
+            lowLinks.put(frame.node, Math.min(lowLinks.get(frame.node), indexes.get(successor)));
+          }
+          continue;
+        }
+
+        depthFirstStack.pop();
+        if (!depthFirstStack.isEmpty()) {
+          N parent = depthFirstStack.peek().node;
+          lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(frame.node)));
+        }
+        if (lowLinks.get(frame.node).equals(indexes.get(frame.node))) {
+          // frame.node is the root of a component: everything above it on the stack belongs to it.
+          ImmutableList.Builder<N> component = ImmutableList.builder();
+          N member;
+          do {
+            member = componentStack.pop();
+            onComponentStack.remove(member);
+            component.add(member);
+          } while (!member.equals(frame.node));
+          components.add(ImmutableSet.copyOf(component.build().reverse()));
+        }
+      }
+    }
+    return components.build();
+  }
+
+  private static <N> DepthFirstFrame<N> visit(
+      N node,
+      SuccessorsFunction<N> graph,
+      Map<N, Integer> indexes,
+      Map<N, Integer> lowLinks,
+      Deque<N> componentStack,
+      Set<N> onComponentStack) {
+    int index = indexes.size();
+    indexes.put(node, index);
+    lowLinks.put(node, index);
+    componentStack.push(node);
+    onComponentStack.add(node);
+    return new DepthFirstFrame<>(node, graph.successors(node).iterator());
+  }
+
+  /** A node being visited by {@link #stronglyConnectedComponents}, and its unvisited successors. */
+  private static final class DepthFirstFrame<N> {
+    final N node;
+    final Iterator<? extends N> successors;
+
+    DepthFirstFrame(N node, Iterator<? extends N> successors) {
+      this.node = node;
+      this.successors = successors;
+    }
+  }
+
   private DaggerGraphs() {}
 }
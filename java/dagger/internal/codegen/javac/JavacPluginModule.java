@@ -16,6 +16,8 @@
 
 package dagger.internal.codegen.javac;
 
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.api.JavacTrees;
 import com.sun.tools.javac.model.JavacElements;
 import com.sun.tools.javac.model.JavacTypes;
 import com.sun.tools.javac.util.Context;
@@ -28,6 +30,7 @@ import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.compileroption.JavacPluginCompilerOptions;
 import dagger.internal.codegen.langmodel.DaggerElements;
 import dagger.internal.codegen.langmodel.DaggerTypes;
+import java.util.Optional;
 import javax.annotation.processing.Messager;
 import javax.inject.Inject;
 import javax.lang.model.element.AnnotationMirror;
@@ -88,5 +91,10 @@ public abstract class JavacPluginModule {
 
   @Binds abstract Types types(DaggerTypes daggerTypes);
 
+  @Provides
+  static Optional<Trees> trees(Context javaContext) {
+    return Optional.of(JavacTrees.instance(javaContext));
+  }
+
   private JavacPluginModule() {}
 }
@@ -83,7 +83,20 @@ abstract class KotlinMetadata {
 
   abstract TypeElement typeElement();
 
-  abstract ClassMetadata classMetadata();
+  abstract DecodedMetadata decodedMetadata();
+
+  /**
+   * Returns the metadata of the class itself. Its constructors, functions and properties may not
+   * have been decoded, so use {@link #memberMetadata()} for those.
+   */
+  ClassMetadata classMetadata() {
+    return decodedMetadata().classMetadata();
+  }
+
+  /** Returns the metadata of the class and all of its members. */
+  private ClassMetadata memberMetadata() {
+    return decodedMetadata().memberMetadata();
+  }
 
   @Memoized
   ImmutableMap<String, ExecutableElement> methodDescriptors() {
@@ -94,7 +107,7 @@ abstract class KotlinMetadata {
   /** Returns true if any constructor of the defined a default parameter. */
   @Memoized
   boolean containsConstructorWithDefaultParam() {
-    return classMetadata().constructors().stream()
+    return memberMetadata().constructors().stream()
         .flatMap(constructor -> constructor.parameters().stream())
         .anyMatch(parameter -> parameter.flags(DECLARES_DEFAULT_VALUE));
   }
@@ -156,12 +169,12 @@ abstract class KotlinMetadata {
 
   private PropertyMetadata findProperty(VariableElement field) {
     String fieldDescriptor = getFieldDescriptor(field);
-    if (classMetadata().propertiesByFieldSignature().containsKey(fieldDescriptor)) {
-      return classMetadata().propertiesByFieldSignature().get(fieldDescriptor);
+    if (memberMetadata().propertiesByFieldSignature().containsKey(fieldDescriptor)) {
+      return memberMetadata().propertiesByFieldSignature().get(fieldDescriptor);
     } else {
       // Fallback to finding property by name, see: https://youtrack.jetbrains.com/issue/KT-35124
       final String propertyName = getPropertyNameFromField(field);
-      return classMetadata().propertiesByFieldSignature().values().stream()
+      return memberMetadata().propertiesByFieldSignature().values().stream()
           .filter(property -> propertyName.contentEquals(property.name()))
           .collect(DaggerCollectors.onlyElement());
     }
@@ -177,13 +190,56 @@ abstract class KotlinMetadata {
   }
 
   FunctionMetadata getFunctionMetadata(ExecutableElement method) {
-    return classMetadata().functionsBySignature().get(getMethodDescriptor(method));
+    return memberMetadata().functionsBySignature().get(getMethodDescriptor(method));
+  }
+
+  /** Returns the Kotlin metadata of a type element, which has already been decoded. */
+  static KotlinMetadata create(TypeElement typeElement, DecodedMetadata decodedMetadata) {
+    return new AutoValue_KotlinMetadata(typeElement, decodedMetadata);
   }
 
-  /** Parse Kotlin class metadata from a given type element * */
-  static KotlinMetadata from(TypeElement typeElement) {
-    return new AutoValue_KotlinMetadata(
-        typeElement, ClassVisitor.createClassMetadata(metadataOf(typeElement)));
+  /**
+   * Reads the Kotlin class metadata from a given type element. Nothing is decoded until it is first
+   * needed.
+   */
+  static DecodedMetadata decode(TypeElement typeElement) {
+    return new DecodedMetadata(metadataOf(typeElement));
+  }
+
+  /**
+   * The decoded metadata of a class. This refers to no elements, so it can be shared by all the
+   * elements for the class.
+   *
+   * <p>Decoding the constructors, functions and properties of a class is much more expensive than
+   * decoding the class itself, and most questions are only about the class, such as whether it is
+   * an object. So the class alone is decoded first, and its members only when one is asked about.
+   */
+  static final class DecodedMetadata {
+    private final KotlinClassMetadata.Class data;
+    @Nullable private ClassMetadata classMetadata;
+    @Nullable private ClassMetadata memberMetadata;
+
+    private DecodedMetadata(KotlinClassMetadata.Class data) {
+      this.data = data;
+    }
+
+    ClassMetadata classMetadata() {
+      if (memberMetadata != null) {
+        return memberMetadata;
+      }
+      if (classMetadata == null) {
+        classMetadata = ClassVisitor.createClassMetadata(data, /* visitMembers= */ false);
+      }
+      return classMetadata;
+    }
+
+    ClassMetadata memberMetadata() {
+      if (memberMetadata == null) {
+        memberMetadata = ClassVisitor.createClassMetadata(data, /* visitMembers= */ true);
+        classMetadata = null;
+      }
+      return memberMetadata;
+    }
   }
 
   private static KotlinClassMetadata.Class metadataOf(TypeElement typeElement) {
@@ -215,14 +271,23 @@ abstract class KotlinMetadata {
   }
 
   private static final class ClassVisitor extends KmClassVisitor {
-    static ClassMetadata createClassMetadata(KotlinClassMetadata.Class data) {
-      ClassVisitor visitor = new ClassVisitor();
+    /**
+     * Decodes the metadata of a class. If {@code visitMembers} is {@code false}, the metadata has
+     * no constructors, functions or properties.
+     */
+    static ClassMetadata createClassMetadata(KotlinClassMetadata.Class data, boolean visitMembers) {
+      ClassVisitor visitor = new ClassVisitor(visitMembers);
       data.accept(visitor);
       return visitor.classMetadata.build();
     }
 
+    private final boolean visitMembers;
     private final ClassMetadata.Builder classMetadata = ClassMetadata.builder();
 
+    private ClassVisitor(boolean visitMembers) {
+      this.visitMembers = visitMembers;
+    }
+
     @Override
     public void visit(int flags, String name) {
       classMetadata.flags(flags).name(name);
@@ -230,6 +295,9 @@ abstract class KotlinMetadata {
 
     @Override
     public KmConstructorVisitor visitConstructor(int flags) {
+      if (!visitMembers) {
+        return null;
+      }
       return new KmConstructorVisitor() {
         private final FunctionMetadata.Builder constructor =
             FunctionMetadata.builder(flags, "<init>");
@@ -261,6 +329,9 @@ abstract class KotlinMetadata {
 
     @Override
     public KmFunctionVisitor visitFunction(int flags, String name) {
+      if (!visitMembers) {
+        return null;
+      }
       return new KmFunctionVisitor() {
         private final FunctionMetadata.Builder function = FunctionMetadata.builder(flags, name);
 
@@ -297,6 +368,9 @@ abstract class KotlinMetadata {
     @Override
     public KmPropertyVisitor visitProperty(
         int flags, String name, int getterFlags, int setterFlags) {
+      if (!visitMembers) {
+        return null;
+      }
       return new KmPropertyVisitor() {
         private final PropertyMetadata.Builder property = PropertyMetadata.builder(flags, name);
 
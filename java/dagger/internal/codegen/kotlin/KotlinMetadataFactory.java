@@ -20,6 +20,7 @@ import static com.google.auto.common.MoreElements.isAnnotationPresent;
 import static dagger.internal.codegen.langmodel.DaggerElements.closestEnclosingTypeElement;
 
 import dagger.internal.codegen.base.ClearableCache;
+import dagger.internal.codegen.kotlin.KotlinMetadata.DecodedMetadata;
 import java.util.HashMap;
 import java.util.Map;
 import javax.inject.Inject;
@@ -33,10 +34,17 @@ import kotlin.Metadata;
  *
  * <p>The metadata is cache since it can be expensive to parse the information stored in a proto
  * binary string format in the metadata annotation values.
+ *
+ * <p>The {@link KotlinMetadata} of an element is cached for a processing round, but its decoded
+ * metadata is cached for the whole compilation by the qualified name of the class. That is safe
+ * because the decoded metadata is determined only by the constant values of the class's {@link
+ * Metadata} annotation, which can't change during a compilation, and doesn't refer to elements.
  */
 @Singleton
 public final class KotlinMetadataFactory implements ClearableCache {
   private final Map<TypeElement, KotlinMetadata> metadataCache = new HashMap<>();
+  // Unlike metadataCache, this isn't cleared between rounds.
+  private final Map<String, DecodedMetadata> decodedMetadataCache = new HashMap<>();
 
   @Inject
   KotlinMetadataFactory() {}
@@ -53,7 +61,17 @@ public final class KotlinMetadataFactory implements ClearableCache {
     if (!isAnnotationPresent(enclosingElement, Metadata.class)) {
       throw new IllegalStateException("Missing @Metadata for: " + enclosingElement);
     }
-    return metadataCache.computeIfAbsent(enclosingElement, KotlinMetadata::from);
+    return metadataCache.computeIfAbsent(enclosingElement, this::createUncached);
+  }
+
+  private KotlinMetadata createUncached(TypeElement typeElement) {
+    String qualifiedName = typeElement.getQualifiedName().toString();
+    DecodedMetadata decodedMetadata =
+        qualifiedName.isEmpty() // local and anonymous classes have no name to share it by
+            ? KotlinMetadata.decode(typeElement)
+            : decodedMetadataCache.computeIfAbsent(
+                qualifiedName, name -> KotlinMetadata.decode(typeElement));
+    return KotlinMetadata.create(typeElement, decodedMetadata);
   }
 
   @Override
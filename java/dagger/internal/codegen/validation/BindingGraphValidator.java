@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static javax.tools.Diagnostic.Kind.ERROR;
 
 import com.google.common.collect.ImmutableSet;
+import dagger.internal.codegen.base.ProcessingProfiler;
 import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.compileroption.ValidationType;
 import dagger.internal.codegen.validation.DiagnosticReporterFactory.DiagnosticReporterImpl;
@@ -36,17 +37,20 @@ public final class BindingGraphValidator {
   private final ImmutableSet<BindingGraphPlugin> externalPlugins;
   private final DiagnosticReporterFactory diagnosticReporterFactory;
   private final CompilerOptions compilerOptions;
+  private final ProcessingProfiler profiler;
 
   @Inject
   BindingGraphValidator(
       @Validation ImmutableSet<BindingGraphPlugin> validationPlugins,
       ImmutableSet<BindingGraphPlugin> externalPlugins,
       DiagnosticReporterFactory diagnosticReporterFactory,
-      CompilerOptions compilerOptions) {
+      CompilerOptions compilerOptions,
+      ProcessingProfiler profiler) {
     this.validationPlugins = validationPlugins;
     this.externalPlugins = externalPlugins;
     this.diagnosticReporterFactory = checkNotNull(diagnosticReporterFactory);
     this.compilerOptions = compilerOptions;
+    this.profiler = profiler;
   }
 
   /** Returns {@code true} if validation or analysis is required on the full binding graph. */
@@ -97,7 +101,13 @@ public final class BindingGraphValidator {
     for (BindingGraphPlugin plugin : plugins) {
       DiagnosticReporterImpl reporter =
           diagnosticReporterFactory.reporter(graph, plugin, errorsAsWarnings);
-      plugin.visitGraph(graph, reporter);
+      try (ProcessingProfiler.Span span =
+          profiler
+              .start("plugin", plugin.pluginName())
+              .arg("component", graph.rootComponentNode().componentPath().toString())
+              .arg("fullBindingGraph", graph.isFullBindingGraph())) {
+        plugin.visitGraph(graph, reporter);
+      }
       if (reporter.reportedDiagnosticKinds().contains(ERROR)) {
         isClean = false;
       }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.validation;
+
+import com.google.auto.common.SuperficialValidation;
+import com.sun.source.util.Trees;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Remembers which types read from class files a validator found to have no problems, so that they
+ * aren't validated again in later processing rounds.
+ *
+ * <p>Unlike the per-round caches that are {@linkplain dagger.internal.codegen.base.ClearableCache
+ * cleared} after each round, this cache lasts for the whole compilation. That is only safe for
+ * types from class files: they can't change during a compilation, whereas types compiled from
+ * source may refer to types that are generated in a later round. Types are remembered by their
+ * binary name, because the compiler may create new elements for them in each round. Only reports
+ * with no items at all are remembered.
+ */
+final class ClassFileValidationCache {
+  private final Optional<Trees> trees;
+  private final DaggerElements elements;
+  private final Set<String> validTypes = new HashSet<>();
+
+  /** Injectable factory for {@code ClassFileValidationCache}. */
+  static final class Factory {
+    private final Optional<Trees> trees;
+    private final DaggerElements elements;
+
+    @Inject
+    Factory(Optional<Trees> trees, DaggerElements elements) {
+      this.trees = trees;
+      this.elements = elements;
+    }
+
+    /** Creates an empty cache. Each validator should have its own. */
+    ClassFileValidationCache create() {
+      return new ClassFileValidationCache(trees, elements);
+    }
+  }
+
+  private ClassFileValidationCache(Optional<Trees> trees, DaggerElements elements) {
+    this.trees = trees;
+    this.elements = elements;
+  }
+
+  /** Returns {@code true} if {@code type} was {@linkplain #record recorded} as valid. */
+  boolean isKnownValid(TypeElement type) {
+    return !validTypes.isEmpty() && isFromClassFile(type) && validTypes.contains(binaryName(type));
+  }
+
+  /**
+   * Remembers that {@code type} is valid if it was read from a class file and {@code report} has no
+   * items.
+   */
+  void record(TypeElement type, ValidationReport<TypeElement> report) {
+    if (report.isClean()
+        && report.allItems().isEmpty()
+        && isFromClassFile(type)
+        // A type that refers to a missing type may be reported as invalid once that type is
+        // generated, so don't remember it.
+        && SuperficialValidation.validateElement(type)) {
+      validTypes.add(binaryName(type));
+    }
+  }
+
+  private boolean isFromClassFile(TypeElement type) {
+    // Without javac's trees there's no way to tell types from class files apart.
+    return trees.isPresent() && trees.get().getTree(type) == null;
+  }
+
+  private String binaryName(TypeElement type) {
+    return elements.getBinaryName(type).toString();
+  }
+}
@@ -23,7 +23,10 @@ import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.indexOf;
 import static com.google.common.collect.Iterables.transform;
 import static dagger.internal.codegen.base.ElementFormatter.elementToString;
+import static dagger.internal.codegen.base.Formatter.INDENT;
+import static dagger.internal.codegen.extension.DaggerGraphs.pathInShortestPathTree;
 import static dagger.internal.codegen.extension.DaggerGraphs.shortestPath;
+import static dagger.internal.codegen.extension.DaggerGraphs.shortestPathTree;
 import static dagger.internal.codegen.extension.DaggerStreams.instancesOf;
 import static dagger.internal.codegen.extension.DaggerStreams.presentValues;
 import static dagger.internal.codegen.extension.DaggerStreams.toImmutableList;
@@ -41,9 +44,11 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Table;
+import com.google.common.graph.SuccessorsFunction;
 import dagger.internal.codegen.base.ElementFormatter;
 import dagger.internal.codegen.base.Formatter;
 import dagger.internal.codegen.binding.DependencyRequestFormatter;
@@ -54,7 +59,11 @@ import dagger.model.BindingGraph.Edge;
 import dagger.model.BindingGraph.MaybeBinding;
 import dagger.model.BindingGraph.Node;
 import dagger.model.ComponentPath;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.function.Function;
 import javax.inject.Inject;
@@ -63,6 +72,8 @@ import javax.lang.model.element.TypeElement;
 
 /** Helper class for generating diagnostic messages. */
 public final class DiagnosticMessageGenerator {
+  /** The maximum number of requests to print in a dependency trace. */
+  private static final int DEPENDENCY_TRACE_LIMIT = 100;
 
   /** Injectable factory for {@code DiagnosticMessageGenerator}. */
   public static final class Factory {
@@ -94,10 +105,27 @@ public final class DiagnosticMessageGenerator {
   /** A cached function from type to all of its supertypes in breadth-first order. */
   private final Function<TypeElement, Iterable<TypeElement>> supertypes;
 
-  /** The shortest path (value) from an entry point (column) to a binding (row). */
-  private final Table<MaybeBinding, DependencyEdge, ImmutableList<Node>> shortestPaths =
+  /**
+   * The shortest path (values) to the only binding (columns) that dependency traces have been
+   * requested for from the target of an entry point (rows). Searching for a single binding stops
+   * as soon as it is found.
+   */
+  private final Table<Node, MaybeBinding, ImmutableList<Node>> singleTracedPaths =
       HashBasedTable.create();
 
+  /**
+   * Shortest-path trees over bindings (values) rooted at the target of an entry point (keys). These
+   * are only built once traces to more than one binding start at the same entry point, and are
+   * then shared by all of them.
+   */
+  private final Map<Node, ImmutableMap<Node, Node>> shortestPathTrees = new HashMap<>();
+
+  /**
+   * The length of a shortest dependency path (values of the inner map) from each binding (keys of
+   * the inner map) to a binding (keys).
+   */
+  private final Map<MaybeBinding, Map<Node, Integer>> dependencyPathLengths = new HashMap<>();
+
   private static <K, V> Function<K, V> memoize(Function<K, V> uncached) {
     // If Android Guava is on the processor path, then c.g.c.b.Function (which LoadingCache
     // implements) does not extend j.u.f.Function.
@@ -172,8 +200,7 @@ public final class DiagnosticMessageGenerator {
 
     // Print the dependency trace unless it's a full binding graph
     if (!graph.isFullBindingGraph()) {
-      dependencyTrace.forEach(
-          edge -> dependencyRequestFormatter.appendFormatLine(message, edge.dependencyRequest()));
+      appendDependencyTrace(message, dependencyTrace);
       if (!dependencyTrace.isEmpty()) {
         appendComponentPathUnlessAtRoot(message, source(getLast(dependencyTrace)));
       }
@@ -219,6 +246,33 @@ public final class DiagnosticMessageGenerator {
     return message.toString();
   }
 
+  /**
+   * Appends the requests in {@code dependencyTrace}. If there are more than {@value
+   * #DEPENDENCY_TRACE_LIMIT}, only those nearest each end of the trace are appended.
+   */
+  private void appendDependencyTrace(
+      StringBuilder message, ImmutableList<DependencyEdge> dependencyTrace) {
+    int size = dependencyTrace.size();
+    if (size <= DEPENDENCY_TRACE_LIMIT) {
+      appendRequests(message, dependencyTrace);
+      return;
+    }
+    int half = DEPENDENCY_TRACE_LIMIT / 2;
+    appendRequests(message, dependencyTrace.subList(0, half));
+    message
+        .append('\n')
+        .append(INDENT)
+        .append("… ")
+        .append(size - DEPENDENCY_TRACE_LIMIT)
+        .append(" more requests");
+    appendRequests(message, dependencyTrace.subList(size - half, size));
+  }
+
+  private void appendRequests(StringBuilder message, ImmutableList<DependencyEdge> edges) {
+    edges.forEach(
+        edge -> dependencyRequestFormatter.appendFormatLine(message, edge.dependencyRequest()));
+  }
+
   public void appendComponentPathUnlessAtRoot(StringBuilder message, Node node) {
     if (!node.componentPath().equals(graph.rootComponentNode().componentPath())) {
       message.append(String.format(" [%s]", node.componentPath()));
@@ -318,22 +372,61 @@ public final class DiagnosticMessageGenerator {
   /**
    * Returns a comparator that puts entry points whose shortest dependency path to {@code binding}
    * is shortest first.
+   *
+   * <p>The lengths of the paths from all entry points are found by a single breadth-first
+   * traversal backwards from {@code binding}, instead of one traversal from each entry point.
    */
   Comparator<DependencyEdge> shortestDependencyPathFirst(MaybeBinding binding) {
-    return comparing(entryPoint -> shortestPathFromEntryPoint(entryPoint, binding).size());
+    Map<Node, Integer> pathLengths =
+        dependencyPathLengths.computeIfAbsent(binding, this::dependencyPathLengths);
+    // Entry points with no path to the binding sort first, as if their path were empty.
+    return comparingInt(entryPoint -> pathLengths.getOrDefault(target(entryPoint), -1));
+  }
+
+  /**
+   * Returns the length of a shortest dependency path from each binding that depends on {@code
+   * binding}, directly or indirectly, to {@code binding}.
+   */
+  private Map<Node, Integer> dependencyPathLengths(MaybeBinding binding) {
+    Map<Node, Integer> pathLengths = new HashMap<>();
+    pathLengths.put(binding, 0);
+    Queue<Node> queue = new ArrayDeque<>();
+    queue.add(binding);
+    while (!queue.isEmpty()) {
+      Node node = queue.remove();
+      int pathLength = pathLengths.get(node) + 1;
+      for (Node predecessor : graph.network().predecessors(node)) {
+        if (predecessor instanceof MaybeBinding && !pathLengths.containsKey(predecessor)) {
+          pathLengths.put(predecessor, pathLength);
+          queue.add(predecessor);
+        }
+      }
+    }
+    return pathLengths;
   }
 
+  /**
+   * Returns the shortest path from the target of {@code entryPoint} to {@code binding}, which is
+   * the same path that {@link dagger.internal.codegen.extension.DaggerGraphs#shortestPath} would
+   * find.
+   */
   ImmutableList<Node> shortestPathFromEntryPoint(DependencyEdge entryPoint, MaybeBinding binding) {
-    return shortestPaths
-        .row(binding)
-        .computeIfAbsent(
-            entryPoint,
-            ep ->
-                shortestPath(
-                    node ->
-                        filter(graph.network().successors(node), MaybeBinding.class::isInstance),
-                    graph.network().incidentNodes(ep).target(),
-                    binding));
+    Node root = target(entryPoint);
+    SuccessorsFunction<Node> bindingSuccessors =
+        node -> filter(graph.network().successors(node), MaybeBinding.class::isInstance);
+    ImmutableMap<Node, Node> tree = shortestPathTrees.get(root);
+    if (tree == null) {
+      Map<MaybeBinding, ImmutableList<Node>> singleTracedPath = singleTracedPaths.row(root);
+      if (singleTracedPath.isEmpty() || singleTracedPath.containsKey(binding)) {
+        return singleTracedPath.computeIfAbsent(
+            binding, b -> shortestPath(bindingSuccessors, root, b));
+      }
+      // A second binding is traced from the same entry point, so more are likely to follow.
+      singleTracedPath.clear();
+      tree = shortestPathTree(bindingSuccessors, root);
+      shortestPathTrees.put(root, tree);
+    }
+    return pathInShortestPathTree(tree, root, binding);
   }
 
   /**
@@ -386,4 +479,8 @@ public final class DiagnosticMessageGenerator {
   private Node source(Edge edge) {
     return graph.network().incidentNodes(edge).source();
   }
+
+  private Node target(Edge edge) {
+    return graph.network().incidentNodes(edge).target();
+  }
 }
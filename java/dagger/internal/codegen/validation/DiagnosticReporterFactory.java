@@ -67,13 +67,22 @@ final class DiagnosticReporterFactory {
     private final boolean reportErrorsAsWarnings;
     private final ImmutableSet.Builder<Diagnostic.Kind> reportedDiagnosticKinds =
         ImmutableSet.builder();
-    private final DiagnosticMessageGenerator diagnosticMessageGenerator;
+    private final BindingGraph graph;
+    // Created on the first report, since most plugins report nothing for most graphs.
+    private DiagnosticMessageGenerator diagnosticMessageGenerator;
 
     DiagnosticReporterImpl(BindingGraph graph, String plugin, boolean reportErrorsAsWarnings) {
+      this.graph = graph;
       this.plugin = plugin;
       this.reportErrorsAsWarnings = reportErrorsAsWarnings;
       this.rootComponent = graph.rootComponentNode().componentPath().currentComponent();
-      this.diagnosticMessageGenerator = diagnosticMessageGeneratorFactory.create(graph);
+    }
+
+    private DiagnosticMessageGenerator diagnosticMessageGenerator() {
+      if (diagnosticMessageGenerator == null) {
+        diagnosticMessageGenerator = diagnosticMessageGeneratorFactory.create(graph);
+      }
+      return diagnosticMessageGenerator;
     }
 
     /** Returns which {@linkplain Diagnostic.Kind kinds} of diagnostics were reported. */
@@ -85,7 +94,7 @@ final class DiagnosticReporterFactory {
     public void reportComponent(
         Diagnostic.Kind diagnosticKind, ComponentNode componentNode, String messageFormat) {
       StringBuilder message = new StringBuilder(messageFormat);
-      diagnosticMessageGenerator.appendComponentPathUnlessAtRoot(message, componentNode);
+      diagnosticMessageGenerator().appendComponentPathUnlessAtRoot(message, componentNode);
       // TODO(dpb): Report at the component node component.
       printMessage(diagnosticKind, message, rootComponent);
     }
@@ -107,7 +116,9 @@ final class DiagnosticReporterFactory {
     public void reportBinding(
         Diagnostic.Kind diagnosticKind, MaybeBinding binding, String message) {
       printMessage(
-          diagnosticKind, message + diagnosticMessageGenerator.getMessage(binding), rootComponent);
+          diagnosticKind,
+          message + diagnosticMessageGenerator().getMessage(binding),
+          rootComponent);
     }
 
     @Override
@@ -125,7 +136,7 @@ final class DiagnosticReporterFactory {
         Diagnostic.Kind diagnosticKind, DependencyEdge dependencyEdge, String message) {
       printMessage(
           diagnosticKind,
-          message + diagnosticMessageGenerator.getMessage(dependencyEdge),
+          message + diagnosticMessageGenerator().getMessage(dependencyEdge),
           rootComponent);
     }
 
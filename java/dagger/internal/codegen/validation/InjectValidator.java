@@ -71,7 +71,10 @@ public final class InjectValidator implements ClearableCache {
   private final Optional<Diagnostic.Kind> privateAndStaticInjectionDiagnosticKind;
   private final InjectionAnnotations injectionAnnotations;
   private final KotlinMetadataUtil metadataUtil;
+  private final ClassFileValidationCache.Factory classFileValidationCacheFactory;
   private final Map<ExecutableElement, ValidationReport<TypeElement>> reports = new HashMap<>();
+  // Unlike reports, this isn't cleared between rounds.
+  private final ClassFileValidationCache validClassFileTypes;
 
   @Inject
   InjectValidator(
@@ -80,7 +83,8 @@ public final class InjectValidator implements ClearableCache {
       DependencyRequestValidator dependencyRequestValidator,
       CompilerOptions compilerOptions,
       InjectionAnnotations injectionAnnotations,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      ClassFileValidationCache.Factory classFileValidationCacheFactory) {
     this(
         types,
         elements,
@@ -88,7 +92,8 @@ public final class InjectValidator implements ClearableCache {
         dependencyRequestValidator,
         Optional.empty(),
         injectionAnnotations,
-        metadataUtil);
+        metadataUtil,
+        classFileValidationCacheFactory);
   }
 
   private InjectValidator(
@@ -98,7 +103,8 @@ public final class InjectValidator implements ClearableCache {
       DependencyRequestValidator dependencyRequestValidator,
       Optional<Kind> privateAndStaticInjectionDiagnosticKind,
       InjectionAnnotations injectionAnnotations,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      ClassFileValidationCache.Factory classFileValidationCacheFactory) {
     this.types = types;
     this.elements = elements;
     this.compilerOptions = compilerOptions;
@@ -106,6 +112,8 @@ public final class InjectValidator implements ClearableCache {
     this.privateAndStaticInjectionDiagnosticKind = privateAndStaticInjectionDiagnosticKind;
     this.injectionAnnotations = injectionAnnotations;
     this.metadataUtil = metadataUtil;
+    this.classFileValidationCacheFactory = classFileValidationCacheFactory;
+    this.validClassFileTypes = classFileValidationCacheFactory.create();
   }
 
   @Override
@@ -128,7 +136,8 @@ public final class InjectValidator implements ClearableCache {
             dependencyRequestValidator,
             Optional.of(Diagnostic.Kind.ERROR),
             injectionAnnotations,
-            metadataUtil);
+            metadataUtil,
+            classFileValidationCacheFactory);
   }
 
   public ValidationReport<TypeElement> validateConstructor(ExecutableElement constructorElement) {
@@ -351,6 +360,15 @@ public final class InjectValidator implements ClearableCache {
   }
 
   public ValidationReport<TypeElement> validateType(TypeElement typeElement) {
+    if (validClassFileTypes.isKnownValid(typeElement)) {
+      return ValidationReport.about(typeElement).build();
+    }
+    ValidationReport<TypeElement> report = validateTypeUncached(typeElement);
+    validClassFileTypes.record(typeElement, report);
+    return report;
+  }
+
+  private ValidationReport<TypeElement> validateTypeUncached(TypeElement typeElement) {
     ValidationReport.Builder<TypeElement> builder = ValidationReport.about(typeElement);
     ValidationReport<TypeElement> membersInjectionReport =
         validateMembersInjectionType(typeElement);
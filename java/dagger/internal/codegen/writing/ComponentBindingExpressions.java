@@ -60,9 +60,13 @@ import dagger.model.BindingKind;
 import dagger.model.DependencyRequest;
 import dagger.model.Key;
 import dagger.model.RequestKind;
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.lang.model.SourceVersion;
@@ -88,7 +92,10 @@ public final class ComponentBindingExpressions {
   private final MembersInjectionMethods membersInjectionMethods;
   private final InnerSwitchingProviders innerSwitchingProviders;
   private final Map<BindingRequest, BindingExpression> expressions = new HashMap<>();
+  private final Map<Key, Boolean> hasOnlyInstanceDependencies = new HashMap<>();
   private final KotlinMetadataUtil metadataUtil;
+  private final ConstantProvisions constantProvisions;
+  private Set<Key> keysReachableFromEntryPoints;
 
   @Inject
   ComponentBindingExpressions(
@@ -102,7 +109,8 @@ public final class ComponentBindingExpressions {
       DaggerElements elements,
       SourceVersion sourceVersion,
       CompilerOptions compilerOptions,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      ConstantProvisions constantProvisions) {
     this.parent = parent;
     this.graph = graph;
     this.componentImplementation = componentImplementation;
@@ -119,6 +127,7 @@ public final class ComponentBindingExpressions {
     this.innerSwitchingProviders =
         new InnerSwitchingProviders(componentImplementation, this, types);
     this.metadataUtil = metadataUtil;
+    this.constantProvisions = constantProvisions;
   }
 
   /**
@@ -453,7 +462,20 @@ public final class ComponentBindingExpressions {
    * <p>Otherwise, return a {@link FrameworkInstanceBindingExpression}.
    */
   private BindingExpression providerBindingExpression(ContributionBinding binding) {
-    if (binding.kind().equals(DELEGATE) && !needsCaching(binding)) {
+    if (isEagerlyInitialized(binding)) {
+      return eagerFieldProviderBindingExpression(binding);
+    } else if (usesStaticReusableInstance(binding) && !isFastInit()) {
+      // The factory's Provider would create a new instance each time, so wrap the static instance.
+      return new ProviderInstanceBindingExpression(
+          binding,
+          new FrameworkFieldInitializer(
+              componentImplementation,
+              binding,
+              new AnonymousProviderCreationExpression(
+                  binding, this, componentImplementation.name())),
+          types,
+          elements);
+    } else if (binding.kind().equals(DELEGATE) && !needsCaching(binding)) {
       return new DelegateBindingExpression(binding, RequestKind.PROVIDER, this, types, elements);
     } else if (isFastInit()
         && frameworkInstanceCreationExpression(binding).useInnerSwitchingProvider()
@@ -467,6 +489,30 @@ public final class ComponentBindingExpressions {
     return frameworkInstanceBindingExpression(binding);
   }
 
+  /**
+   * Returns a binding expression for {@link RequestKind#PROVIDER} requests of a binding that is
+   * {@linkplain #isEagerlyInitialized(ContributionBinding) eagerly initialized}.
+   *
+   * <p>The provider wraps the eagerly initialized instance so that the binding's scope is honored
+   * by both instance and provider requests.
+   */
+  private BindingExpression eagerFieldProviderBindingExpression(ContributionBinding binding) {
+    return new ProviderInstanceBindingExpression(
+        binding,
+        new FrameworkFieldInitializer(
+            componentImplementation,
+            binding,
+            new InstanceFactoryCreationExpression(
+                binding.isNullable(),
+                () ->
+                    getDependencyExpression(
+                            bindingRequest(binding.key(), RequestKind.INSTANCE),
+                            componentImplementation.name())
+                        .codeBlock())),
+        types,
+        elements);
+  }
+
   /**
    * Returns a binding expression that uses a {@link dagger.producers.Producer} field for a
    * provision binding.
@@ -489,6 +535,13 @@ public final class ComponentBindingExpressions {
    * Returns a binding expression for {@link RequestKind#INSTANCE} requests.
    */
   private BindingExpression instanceBindingExpression(ContributionBinding binding) {
+    if (isEagerlyInitialized(binding)) {
+      return new EagerFieldBindingExpression(
+          binding, unscopedDirectInstanceExpression(binding).get(), componentImplementation);
+    }
+    if (usesStaticReusableInstance(binding)) {
+      return new StaticReusableInstanceBindingExpression(binding);
+    }
     Optional<BindingExpression> maybeDirectInstanceExpression =
         unscopedDirectInstanceExpression(binding);
     if (maybeDirectInstanceExpression.isPresent()) {
@@ -575,6 +628,11 @@ public final class ComponentBindingExpressions {
       case ASSISTED_INJECTION:
       case INJECTION:
       case PROVISION:
+        if (inlinesConstant(binding)) {
+          return Optional.of(
+              new ConstantProvisionBindingExpression(
+                  (ProvisionBinding) binding, constantProvisions));
+        }
         return Optional.of(
             new SimpleMethodBindingExpression(
                 (ProvisionBinding) binding,
@@ -700,6 +758,99 @@ public final class ComponentBindingExpressions {
     return true;
   }
 
+  /**
+   * Returns {@code true} if the binding's instance should be created during component
+   * initialization and stored in a plain field.
+   *
+   * <p>This only applies to scoped {@code @Inject} and {@code @Provides} bindings that are
+   * reachable from one of this component's entry points through {@link RequestKind#INSTANCE}
+   * requests and whose transitive dependencies are all instance requests. The latter guarantees
+   * that the binding cannot be part of a dependency cycle, so all of its dependencies can be
+   * initialized before it.
+   */
+  private boolean isEagerlyInitialized(ContributionBinding binding) {
+    return compilerOptions.eagerlyInitializeScopedBindings(
+            topLevelComponentImplementation.componentDescriptor().typeElement())
+        && binding.bindingType().equals(BindingType.PROVISION)
+        && (binding.kind().equals(BindingKind.INJECTION)
+            || binding.kind().equals(BindingKind.PROVISION))
+        && binding.scope().isPresent()
+        && !binding.scope().get().isReusable()
+        && componentImplementation.isTypeAccessible(binding.contributedType())
+        && keysReachableFromEntryPoints().contains(binding.key())
+        && hasOnlyInstanceDependencies(binding);
+  }
+
+  /**
+   * Returns {@code true} if instance requests for the binding should use the value of its {@code
+   * Provides} method, which is a {@linkplain ConstantProvisions compile-time constant}.
+   */
+  private boolean inlinesConstant(ContributionBinding binding) {
+    return compilerOptions.inlineConstantProvisions(
+            topLevelComponentImplementation.componentDescriptor().typeElement())
+        && constantProvisions.constantValue(binding).isPresent();
+  }
+
+  /**
+   * Returns {@code true} if requests for the binding should use the {@linkplain
+   * StaticReusableInstances static instance} held by its factory rather than caching an instance in
+   * this component.
+   */
+  private boolean usesStaticReusableInstance(ContributionBinding binding) {
+    return compilerOptions.staticReusableInstances(
+            topLevelComponentImplementation.componentDescriptor().typeElement())
+        && StaticReusableInstances.hasStaticInstance(binding)
+        && StaticReusableInstances.factoryHasStaticInstance(binding, elements)
+        && componentImplementation.isTypeAccessible(binding.contributedType());
+  }
+
+  private boolean hasOnlyInstanceDependencies(ContributionBinding binding) {
+    Key key = binding.key();
+    if (!hasOnlyInstanceDependencies.containsKey(key)) {
+      // A validated graph cannot have a cycle made only of instance requests, so this recursion
+      // terminates.
+      hasOnlyInstanceDependencies.put(
+          key,
+          binding.dependencies().stream()
+              .allMatch(
+                  dependency ->
+                      dependency.kind().equals(RequestKind.INSTANCE)
+                          && hasOnlyInstanceDependencies(
+                              graph.contributionBinding(dependency.key()))));
+    }
+    return hasOnlyInstanceDependencies.get(key);
+  }
+
+  /**
+   * Returns the keys of all bindings that are transitively requested by an entry point through
+   * {@link RequestKind#INSTANCE} requests only. Bindings that are only reached through a {@code
+   * Provider}, {@code Lazy} or {@code Producer} must not be created before they are asked for.
+   */
+  private Set<Key> keysReachableFromEntryPoints() {
+    if (keysReachableFromEntryPoints == null) {
+      Set<Key> reachableKeys = new HashSet<>();
+      Queue<Key> keysToVisit = new ArrayDeque<>();
+      graph.componentDescriptor().entryPointMethods().stream()
+          .map(method -> method.dependencyRequest().get())
+          .filter(request -> request.kind().equals(RequestKind.INSTANCE))
+          .map(DependencyRequest::key)
+          .forEach(keysToVisit::add);
+      while (!keysToVisit.isEmpty()) {
+        Key key = keysToVisit.remove();
+        if (reachableKeys.add(key)) {
+          for (BindingNode bindingNode : graph.bindingNodes(key)) {
+            bindingNode.dependencies().stream()
+                .filter(dependency -> dependency.kind().equals(RequestKind.INSTANCE))
+                .map(DependencyRequest::key)
+                .forEach(keysToVisit::add);
+          }
+        }
+      }
+      keysReachableFromEntryPoints = reachableKeys;
+    }
+    return keysReachableFromEntryPoints;
+  }
+
   private boolean isFastInit() {
     return compilerOptions.fastInit(
         topLevelComponentImplementation.componentDescriptor().typeElement());
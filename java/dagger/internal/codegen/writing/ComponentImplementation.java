@@ -23,32 +23,42 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.squareup.javapoet.TypeSpec.classBuilder;
 import static dagger.internal.codegen.binding.ComponentCreatorKind.BUILDER;
+import static dagger.internal.codegen.extension.DaggerGraphs.stronglyConnectedComponents;
+import static dagger.internal.codegen.extension.DaggerStreams.toImmutableSet;
 import static dagger.internal.codegen.langmodel.Accessibility.isTypeAccessibleFrom;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
+import com.google.common.graph.Traverser;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
+import dagger.internal.MemoizedSentinel;
 import dagger.internal.codegen.base.UniqueNameSet;
 import dagger.internal.codegen.binding.BindingGraph;
+import dagger.internal.codegen.binding.BindingNode;
 import dagger.internal.codegen.binding.BindingRequest;
 import dagger.internal.codegen.binding.ComponentCreatorDescriptor;
 import dagger.internal.codegen.binding.ComponentCreatorKind;
 import dagger.internal.codegen.binding.ComponentDescriptor;
 import dagger.internal.codegen.binding.ComponentRequirement;
+import dagger.internal.codegen.binding.ContributionBinding;
 import dagger.internal.codegen.binding.KeyVariableNamer;
 import dagger.internal.codegen.compileroption.CompilerOptions;
 import dagger.internal.codegen.javapoet.TypeSpecs;
+import dagger.model.DependencyRequest;
 import dagger.model.Key;
 import dagger.model.RequestKind;
 import java.util.ArrayList;
@@ -78,6 +88,12 @@ public final class ComponentImplementation {
      */
     PRIVATE_METHOD_SCOPED_FIELD,
 
+    /**
+     * A field for the instance of a {@linkplain EagerFieldBindingExpression scoped binding that is
+     * initialized eagerly}.
+     */
+    EAGER_SCOPED_FIELD,
+
     /** A framework field for type T, e.g. {@code Provider<T>}. */
     FRAMEWORK_FIELD,
 
@@ -133,8 +149,8 @@ public final class ComponentImplementation {
     SUBCOMPONENT
   }
 
-  private ComponentImplementation currentShard = this;
-  private final Map<Key, ComponentImplementation> shardsByKey = new HashMap<>();
+  private final Map<Integer, ComponentImplementation> shardsByIndex = new HashMap<>();
+  private ImmutableMap<Key, Integer> shardIndexByKey;
   private final Optional<ComponentImplementation> shardOwner;
   private final BindingGraph graph;
   private final ClassName name;
@@ -180,13 +196,39 @@ public final class ComponentImplementation {
     this.shardOwner = Optional.of(shardOwner);
     String fieldName = UPPER_CAMEL.to(LOWER_CAMEL, name.simpleName());
     String uniqueFieldName = shardOwner.getUniqueFieldName(fieldName);
-    this.externalReferenceBlock = CodeBlock.of("$T.this.$N", shardOwner.name, uniqueFieldName);
+    String uniqueMethodName = shardOwner.getUniqueMethodName(fieldName);
+    this.externalReferenceBlock = CodeBlock.of("$T.this.$N()", shardOwner.name, uniqueMethodName);
     shardOwner.addTypeSupplier(() -> generate().build());
     shardOwner.addField(
         FieldSpecKind.COMPONENT_SHARD,
-        FieldSpec.builder(name, uniqueFieldName, PRIVATE, FINAL)
-            .initializer("new $T()", name)
+        FieldSpec.builder(TypeName.OBJECT, uniqueFieldName, PRIVATE, VOLATILE)
+            .initializer("new $T()", MemoizedSentinel.class)
             .build());
+    shardOwner.addMethod(
+        MethodSpecKind.PRIVATE_METHOD, shardAccessor(shardName, uniqueFieldName, uniqueMethodName));
+  }
+
+  /**
+   * Returns the method that creates the shard the first time it is accessed, so that shards whose
+   * bindings are never requested are neither loaded nor instantiated.
+   */
+  private static MethodSpec shardAccessor(
+      ClassName shardName, String fieldName, String methodName) {
+    return MethodSpec.methodBuilder(methodName)
+        .addModifiers(PRIVATE)
+        .returns(shardName)
+        .addStatement("$T local = $N", TypeName.OBJECT, fieldName)
+        .beginControlFlow("if (local instanceof $T)", MemoizedSentinel.class)
+        .beginControlFlow("synchronized (local)")
+        .addStatement("local = $N", fieldName)
+        .beginControlFlow("if (local instanceof $T)", MemoizedSentinel.class)
+        .addStatement("local = new $T()", shardName)
+        .addStatement("$N = local", fieldName)
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return ($T) local", shardName)
+        .build();
   }
 
   /** Returns a component implementation for a top-level component. */
@@ -205,18 +247,90 @@ public final class ComponentImplementation {
     return new ComponentImplementation(graph, childName, subcomponentNames, compilerOptions);
   }
 
-  /** Returns a component implementation that is a shard of the current implementation. */
+  /**
+   * Returns the component implementation that owns the binding for the given key: either this
+   * implementation or one of its shards.
+   */
   public ComponentImplementation shardImplementation(Key key) {
     checkState(!shardOwner.isPresent(), "Shards cannot create other shards.");
-    if (!shardsByKey.containsKey(key)) {
-      int keysPerShard = compilerOptions.keysPerComponentShard(graph.componentTypeElement());
-      if (!shardsByKey.isEmpty() && shardsByKey.size() % keysPerShard == 0) {
-        ClassName shardName = name.nestedClass("Shard" + shardsByKey.size() / keysPerShard);
-        currentShard = new ComponentImplementation(this, shardName);
+    if (shardIndexByKey == null) {
+      shardIndexByKey =
+          partitionIntoShards(
+              graph, compilerOptions.keysPerComponentShard(graph.componentTypeElement()));
+    }
+    int shardIndex = shardIndexByKey.getOrDefault(key, 0);
+    if (shardIndex == 0) {
+      return this;
+    }
+    if (!shardsByIndex.containsKey(shardIndex)) {
+      shardsByIndex.put(
+          shardIndex, new ComponentImplementation(this, name.nestedClass("Shard" + shardIndex)));
+    }
+    return shardsByIndex.get(shardIndex);
+  }
+
+  /**
+   * Returns the index of the shard for each binding owned by the component, where {@code 0} is the
+   * component itself.
+   *
+   * <p>Shard boundaries follow the strongly connected components of the dependency graph, so a
+   * dependency cycle is never split across shards (a single strongly connected component may exceed
+   * {@code keysPerShard}). The components are visited in dependency order, first from the
+   * component's entry points and then from each descendant subcomponent in turn, so bindings that
+   * are only used by the same subcomponent are placed next to each other.
+   */
+  private static ImmutableMap<Key, Integer> partitionIntoShards(
+      BindingGraph graph, int keysPerShard) {
+    // Iterate over the top-level graph rather than BindingGraph#bindingNodes() so that the order,
+    // and therefore the generated code, is deterministic.
+    ImmutableSet<Key> ownedKeys =
+        graph.topLevelBindingGraph().bindings().stream()
+            .filter(binding -> binding.componentPath().equals(graph.componentPath()))
+            .filter(binding -> ((BindingNode) binding).delegate() instanceof ContributionBinding)
+            .map(binding -> binding.key())
+            .collect(toImmutableSet());
+    if (ownedKeys.size() <= keysPerShard) {
+      return ImmutableMap.of();
+    }
+
+    ImmutableSet.Builder<Key> roots = ImmutableSet.builder();
+    graph.componentDescriptor().entryPointMethods().stream()
+        .map(method -> method.dependencyRequest().get().key())
+        .forEach(roots::add);
+    for (BindingGraph subgraph :
+        Traverser.forTree(BindingGraph::subgraphs).depthFirstPreOrder(graph.subgraphs())) {
+      subgraph.componentDescriptor().entryPointMethods().stream()
+          .map(method -> method.dependencyRequest().get().key())
+          .forEach(roots::add);
+      subgraph.bindingNodes().stream()
+          .filter(bindingNode -> bindingNode.componentPath().equals(subgraph.componentPath()))
+          .flatMap(bindingNode -> bindingNode.dependencies().stream())
+          .map(DependencyRequest::key)
+          .forEach(roots::add);
+    }
+    roots.addAll(ownedKeys);
+
+    ImmutableMap.Builder<Key, Integer> shardIndexByKey = ImmutableMap.builder();
+    int shardIndex = 0;
+    int shardSize = 0;
+    for (ImmutableSet<Key> stronglyConnectedKeys :
+        stronglyConnectedComponents(
+            roots.build().stream().filter(ownedKeys::contains).collect(toImmutableSet()),
+            key ->
+                graph.contributionBinding(key).dependencies().stream()
+                    .map(DependencyRequest::key)
+                    .filter(ownedKeys::contains)
+                    .collect(toImmutableSet()))) {
+      if (shardSize > 0 && shardSize + stronglyConnectedKeys.size() > keysPerShard) {
+        shardIndex++;
+        shardSize = 0;
+      }
+      for (Key key : stronglyConnectedKeys) {
+        shardIndexByKey.put(key, shardIndex);
       }
-      shardsByKey.put(key, currentShard);
+      shardSize += stronglyConnectedKeys.size();
     }
-    return shardsByKey.get(key);
+    return shardIndexByKey.build();
   }
 
   /** Returns a reference to this compenent when called from a class nested in this component. */
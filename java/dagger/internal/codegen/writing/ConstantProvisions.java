@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import static com.google.auto.common.MoreElements.asExecutable;
+import static dagger.internal.codegen.binding.SourceFiles.generatedClassNameForBinding;
+import static javax.lang.model.element.ElementKind.METHOD;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.util.ElementFilter.fieldsIn;
+
+import com.google.auto.common.MoreTypes;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.TypeName;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.util.Trees;
+import dagger.internal.codegen.base.ClearableCache;
+import dagger.internal.codegen.binding.ContributionBinding;
+import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import dagger.model.BindingKind;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * Finds {@code @Provides} methods whose value is a compile-time constant, so that requests for them
+ * can use the constant directly instead of calling the method.
+ *
+ * <p>Annotation processors cannot see method bodies in class files, so the value is read from the
+ * method's source when the module is part of the current compilation. With {@code
+ * inlineConstantProvisions} enabled, the factory generated for such a method records the value in a
+ * {@code public static final} {@link #CONSTANT_FIELD} field, which later compilations read from the
+ * factory's class file.
+ *
+ * <p>Only static, unscoped methods without dependencies in Java modules are considered. Their body
+ * must be a single {@code return} of a literal of the method's primitive or {@code String} return
+ * type (optionally negated), e.g. {@code @Provides static int maxBatchSize() { return 128; }}.
+ */
+@Singleton
+public final class ConstantProvisions implements ClearableCache {
+  /** The name of the factory field that holds the constant value of the binding. */
+  static final String CONSTANT_FIELD = "CONSTANT";
+
+  private final Optional<Trees> trees;
+  private final DaggerElements elements;
+  private final KotlinMetadataUtil metadataUtil;
+  private final Map<ContributionBinding, Optional<Object>> constantValues = new HashMap<>();
+
+  @Inject
+  ConstantProvisions(
+      Optional<Trees> trees, DaggerElements elements, KotlinMetadataUtil metadataUtil) {
+    this.trees = trees;
+    this.elements = elements;
+    this.metadataUtil = metadataUtil;
+  }
+
+  @Override
+  public void clearCache() {
+    constantValues.clear();
+  }
+
+  /** Returns the constant value of the binding, if it has one. */
+  Optional<Object> constantValue(ContributionBinding binding) {
+    return constantValues.computeIfAbsent(binding, this::constantValueUncached);
+  }
+
+  private Optional<Object> constantValueUncached(ContributionBinding binding) {
+    if (!isCandidate(binding)) {
+      return Optional.empty();
+    }
+    Optional<Object> value = valueFromSource(asExecutable(binding.bindingElement().get()));
+    return value.isPresent() ? value : valueFromFactory(binding);
+  }
+
+  /** Returns an expression that evaluates to the constant value of the binding. */
+  CodeBlock constantExpression(ContributionBinding binding) {
+    return CodeBlock.of("$L", elements.getConstantExpression(constantValue(binding).get()));
+  }
+
+  /** Returns the factory field that records the constant value of the binding, if it has one. */
+  Optional<FieldSpec> constantField(ContributionBinding binding) {
+    return constantValue(binding)
+        .map(
+            value ->
+                FieldSpec.builder(
+                        TypeName.get(asExecutable(binding.bindingElement().get()).getReturnType()),
+                        CONSTANT_FIELD,
+                        PUBLIC,
+                        STATIC,
+                        FINAL)
+                    .initializer(constantExpression(binding))
+                    .build());
+  }
+
+  private boolean isCandidate(ContributionBinding binding) {
+    if (!binding.kind().equals(BindingKind.PROVISION)
+        || binding.scope().isPresent()
+        || !binding.dependencies().isEmpty()
+        || binding.requiresModuleInstance()
+        || binding.unresolved().isPresent()
+        || !binding.bindingElement().isPresent()
+        || !binding.bindingElement().get().getKind().equals(METHOD)) {
+      return false;
+    }
+    ExecutableElement method = asExecutable(binding.bindingElement().get());
+    return method.getModifiers().contains(STATIC)
+        && method.getTypeParameters().isEmpty()
+        && isConstantType(method.getReturnType())
+        // Kotlin modules are compiled from stubs whose method bodies are placeholders.
+        && !metadataUtil.hasMetadata(method.getEnclosingElement());
+  }
+
+  private static boolean isConstantType(TypeMirror type) {
+    return type.getKind().isPrimitive() || MoreTypes.isTypeOf(String.class, type);
+  }
+
+  private Optional<Object> valueFromSource(ExecutableElement method) {
+    if (!trees.isPresent()) {
+      return Optional.empty();
+    }
+    MethodTree methodTree = trees.get().getTree(method);
+    if (methodTree == null || methodTree.getBody() == null) {
+      return Optional.empty();
+    }
+    List<? extends StatementTree> statements = methodTree.getBody().getStatements();
+    if (statements.size() != 1 || !(statements.get(0) instanceof ReturnTree)) {
+      return Optional.empty();
+    }
+    return literalValue(((ReturnTree) statements.get(0)).getExpression())
+        .flatMap(value -> convert(value, method.getReturnType()));
+  }
+
+  private static Optional<Object> literalValue(ExpressionTree expression) {
+    switch (expression.getKind()) {
+      case PARENTHESIZED:
+        return literalValue(((ParenthesizedTree) expression).getExpression());
+      case UNARY_MINUS:
+        return literalValue(((UnaryTree) expression).getExpression())
+            .flatMap(ConstantProvisions::negate);
+      case INT_LITERAL:
+      case LONG_LITERAL:
+      case FLOAT_LITERAL:
+      case DOUBLE_LITERAL:
+      case BOOLEAN_LITERAL:
+      case CHAR_LITERAL:
+      case STRING_LITERAL:
+        return Optional.of(((LiteralTree) expression).getValue());
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static Optional<Object> negate(Object value) {
+    if (value instanceof Integer) {
+      return Optional.of(-(Integer) value);
+    } else if (value instanceof Long) {
+      return Optional.of(-(Long) value);
+    } else if (value instanceof Float) {
+      return Optional.of(-(Float) value);
+    } else if (value instanceof Double) {
+      return Optional.of(-(Double) value);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Converts a literal to the return type of the method, applying the same widening conversions
+   * that the compiler applies to the {@code return} statement.
+   */
+  private static Optional<Object> convert(Object value, TypeMirror returnType) {
+    switch (returnType.getKind()) {
+      case BOOLEAN:
+        return value instanceof Boolean ? Optional.of(value) : Optional.empty();
+      case CHAR:
+        return value instanceof Character ? Optional.of(value) : Optional.empty();
+      case INT:
+        return value instanceof Integer ? Optional.of(value) : Optional.empty();
+      case LONG:
+        return value instanceof Integer || value instanceof Long
+            ? Optional.of(((Number) value).longValue())
+            : Optional.empty();
+      case FLOAT:
+        return value instanceof Integer || value instanceof Long || value instanceof Float
+            ? Optional.of(((Number) value).floatValue())
+            : Optional.empty();
+      case DOUBLE:
+        return value instanceof Number
+            ? Optional.of(((Number) value).doubleValue())
+            : Optional.empty();
+      case DECLARED:
+        return value instanceof String ? Optional.of(value) : Optional.empty();
+      default:
+        // byte and short returns would need narrowing conversions, so they're not folded.
+        return Optional.empty();
+    }
+  }
+
+  private Optional<Object> valueFromFactory(ContributionBinding binding) {
+    TypeElement factory = elements.getTypeElement(generatedClassNameForBinding(binding));
+    if (factory == null) {
+      return Optional.empty();
+    }
+    return fieldsIn(factory.getEnclosedElements()).stream()
+        .filter(field -> field.getSimpleName().contentEquals(CONSTANT_FIELD))
+        .map(VariableElement::getConstantValue)
+        .filter(value -> value != null)
+        .findFirst();
+  }
+}
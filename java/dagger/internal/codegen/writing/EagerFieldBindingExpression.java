@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static dagger.internal.codegen.writing.ComponentImplementation.FieldSpecKind.EAGER_SCOPED_FIELD;
+import static javax.lang.model.element.Modifier.PRIVATE;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.TypeName;
+import dagger.internal.codegen.binding.ContributionBinding;
+import dagger.internal.codegen.binding.KeyVariableNamer;
+import dagger.internal.codegen.javapoet.Expression;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A binding expression for a scoped binding that is created once while the component is being
+ * initialized and stored in a plain component field.
+ *
+ * <p>The field is assigned in the component's {@code initialize} methods the first time the
+ * expression is requested. Since the instance's dependencies are requested (and therefore
+ * initialized) before the assignment is added, the initializations end up in dependency order.
+ * Callers must ensure that the binding cannot be part of a dependency cycle.
+ */
+final class EagerFieldBindingExpression extends BindingExpression {
+  private final ContributionBinding binding;
+  private final BindingExpression unscopedInstanceExpression;
+  private final ComponentImplementation componentImplementation;
+  private MemberSelect fieldSelect;
+
+  EagerFieldBindingExpression(
+      ContributionBinding binding,
+      BindingExpression unscopedInstanceExpression,
+      ComponentImplementation componentImplementation) {
+    this.binding = checkNotNull(binding);
+    this.unscopedInstanceExpression = checkNotNull(unscopedInstanceExpression);
+    this.componentImplementation = checkNotNull(componentImplementation);
+  }
+
+  @Override
+  Expression getDependencyExpression(ClassName requestingClass) {
+    return Expression.create(fieldType(), fieldSelect().getExpressionFor(requestingClass));
+  }
+
+  /** Adds the field and its initialization to the component the first time it's called. */
+  private MemberSelect fieldSelect() {
+    if (fieldSelect == null) {
+      // Create the instance expression first so that the initializations of any dependencies that
+      // are also eagerly initialized are added before this one.
+      CodeBlock instance =
+          unscopedInstanceExpression.getDependencyExpression(componentImplementation.name())
+              .codeBlock();
+      FieldSpec field =
+          FieldSpec.builder(
+                  TypeName.get(fieldType()),
+                  componentImplementation.getUniqueFieldName(KeyVariableNamer.name(binding.key())),
+                  PRIVATE)
+              .build();
+      componentImplementation.addField(EAGER_SCOPED_FIELD, field);
+      componentImplementation.addInitialization(CodeBlock.of("this.$N = $L;", field, instance));
+      fieldSelect = MemberSelect.localField(componentImplementation.name(), field.name);
+    }
+    return fieldSelect;
+  }
+
+  private TypeMirror fieldType() {
+    return binding.contributedPrimitiveType().orElse(binding.contributedType());
+  }
+}
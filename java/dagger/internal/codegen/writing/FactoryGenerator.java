@@ -81,6 +81,7 @@ public final class FactoryGenerator extends SourceFileGenerator<ProvisionBinding
   private final DaggerTypes types;
   private final CompilerOptions compilerOptions;
   private final KotlinMetadataUtil metadataUtil;
+  private final ConstantProvisions constantProvisions;
 
   @Inject
   FactoryGenerator(
@@ -89,11 +90,13 @@ public final class FactoryGenerator extends SourceFileGenerator<ProvisionBinding
       DaggerTypes types,
       DaggerElements elements,
       CompilerOptions compilerOptions,
-      KotlinMetadataUtil metadataUtil) {
+      KotlinMetadataUtil metadataUtil,
+      ConstantProvisions constantProvisions) {
     super(filer, elements, sourceVersion);
     this.types = types;
     this.compilerOptions = compilerOptions;
     this.metadataUtil = metadataUtil;
+    this.constantProvisions = constantProvisions;
   }
 
   @Override
@@ -122,11 +125,18 @@ public final class FactoryGenerator extends SourceFileGenerator<ProvisionBinding
             .addTypeVariables(bindingTypeElementTypeVariableNames(binding));
 
     factoryTypeName(binding).ifPresent(factoryBuilder::addSuperinterface);
+    if (compilerOptions.inlineConstantProvisions(binding.bindingTypeElement().get())) {
+      constantProvisions.constantField(binding).ifPresent(factoryBuilder::addField);
+    }
     addConstructorAndFields(binding, factoryBuilder);
     factoryBuilder.addMethod(getMethod(binding));
     addCreateMethod(binding, factoryBuilder);
 
     factoryBuilder.addMethod(ProvisionMethod.create(binding, compilerOptions, metadataUtil));
+    if (compilerOptions.staticReusableInstances(binding.bindingTypeElement().get())
+        && StaticReusableInstances.hasStaticInstance(binding)) {
+      StaticReusableInstances.addTo(factoryBuilder, binding, compilerOptions, metadataUtil);
+    }
     gwtIncompatibleAnnotation(binding).ifPresent(factoryBuilder::addAnnotation);
 
     return factoryBuilder;
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.squareup.javapoet.ClassName;
+import dagger.internal.codegen.binding.ContributionBinding;
+import dagger.internal.codegen.javapoet.Expression;
+
+/**
+ * A binding expression for {@link dagger.model.RequestKind#INSTANCE} requests of a binding whose
+ * factory holds a {@linkplain StaticReusableInstances static reusable instance}.
+ */
+final class StaticReusableInstanceBindingExpression extends BindingExpression {
+  private final ContributionBinding binding;
+
+  StaticReusableInstanceBindingExpression(ContributionBinding binding) {
+    checkArgument(StaticReusableInstances.hasStaticInstance(binding));
+    this.binding = binding;
+  }
+
+  @Override
+  Expression getDependencyExpression(ClassName requestingClass) {
+    return Expression.create(binding.contributedType(), StaticReusableInstances.invoke(binding));
+  }
+}
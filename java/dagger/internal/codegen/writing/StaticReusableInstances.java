@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.writing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static dagger.internal.codegen.binding.ContributionBinding.FactoryCreationStrategy.SINGLETON_INSTANCE;
+import static dagger.internal.codegen.binding.SourceFiles.bindingTypeElementTypeVariableNames;
+import static dagger.internal.codegen.binding.SourceFiles.generatedClassNameForBinding;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.util.ElementFilter.methodsIn;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import dagger.internal.codegen.binding.ContributionBinding;
+import dagger.internal.codegen.binding.ProvisionBinding;
+import dagger.internal.codegen.compileroption.CompilerOptions;
+import dagger.internal.codegen.kotlin.KotlinMetadataUtil;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import dagger.internal.codegen.writing.InjectionMethods.ProvisionMethod;
+import dagger.model.BindingKind;
+import java.util.Optional;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Static instances of {@link dagger.Reusable @Reusable} bindings without dependencies.
+ *
+ * <p>The instance is held by a nested class of the binding's factory, so it is created the first
+ * time any component requests it and is then shared by all components in the class loader:
+ *
+ * <pre><code>
+ *   public static Foo reusableInstance() {
+ *     return ReusableInstanceHolder.INSTANCE;
+ *   }
+ *
+ *   private static final class ReusableInstanceHolder {
+ *     private static final Foo INSTANCE = new Foo();
+ *   }
+ * </code></pre>
+ */
+final class StaticReusableInstances {
+  private static final String METHOD_NAME = "reusableInstance";
+  private static final String HOLDER_NAME = "ReusableInstanceHolder";
+
+  /**
+   * Returns {@code true} if the binding's factory has a static instance when it is generated with
+   * {@code staticReusableInstances} enabled.
+   *
+   * <p>Factories generated in a different compilation may not have one, so components must also
+   * check {@link #factoryHasStaticInstance}.
+   */
+  static boolean hasStaticInstance(ContributionBinding binding) {
+    return (binding.kind().equals(BindingKind.INJECTION)
+            || binding.kind().equals(BindingKind.PROVISION))
+        && binding.scope().isPresent()
+        && binding.scope().get().isReusable()
+        && binding.factoryCreationStrategy().equals(SINGLETON_INSTANCE)
+        && ((ProvisionBinding) binding).injectionSites().isEmpty()
+        && !binding.unresolved().isPresent()
+        && bindingTypeElementTypeVariableNames(binding).isEmpty();
+  }
+
+  /**
+   * Returns {@code true} if the binding's factory declares the accessor for its static instance.
+   *
+   * <p>A factory that isn't found will be generated in this compilation, with the same options as
+   * the component that requests it. A factory from a library may have been generated without the
+   * option, or by an older version of Dagger.
+   */
+  static boolean factoryHasStaticInstance(ContributionBinding binding, DaggerElements elements) {
+    TypeElement factory = elements.getTypeElement(generatedClassNameForBinding(binding));
+    return factory == null
+        || methodsIn(factory.getEnclosedElements()).stream()
+            .anyMatch(method -> method.getSimpleName().contentEquals(METHOD_NAME));
+  }
+
+  /** Returns an expression that evaluates to the static instance of the binding. */
+  static CodeBlock invoke(ContributionBinding binding) {
+    checkArgument(hasStaticInstance(binding), "%s does not have a static instance", binding);
+    return CodeBlock.of("$T.$N()", generatedClassNameForBinding(binding), METHOD_NAME);
+  }
+
+  /** Adds the static instance and its accessor to the binding's factory. */
+  static void addTo(
+      TypeSpec.Builder factoryBuilder,
+      ProvisionBinding binding,
+      CompilerOptions compilerOptions,
+      KotlinMetadataUtil metadataUtil) {
+    checkArgument(hasStaticInstance(binding), "%s does not have a static instance", binding);
+    ClassName factoryName = generatedClassNameForBinding(binding);
+    ClassName holderName = factoryName.nestedClass(HOLDER_NAME);
+    TypeName instanceType = TypeName.get(binding.contributedType());
+    CodeBlock newInstance =
+        ProvisionMethod.invoke(
+            binding,
+            request -> {
+              throw new AssertionError("unexpected dependency: " + request);
+            },
+            factoryName,
+            Optional.empty(),
+            compilerOptions,
+            metadataUtil);
+
+    factoryBuilder.addMethod(
+        methodBuilder(METHOD_NAME)
+            .addModifiers(PUBLIC, STATIC)
+            .returns(instanceType)
+            .addStatement("return $T.INSTANCE", holderName)
+            .build());
+    factoryBuilder.addType(
+        TypeSpec.classBuilder(holderName)
+            .addModifiers(PRIVATE, STATIC, FINAL)
+            .addField(
+                FieldSpec.builder(instanceType, "INSTANCE", PRIVATE, STATIC, FINAL)
+                    .initializer(newInstance)
+                    .build())
+            .build());
+  }
+
+  private StaticReusableInstances() {}
+}
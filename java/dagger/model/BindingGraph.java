@@ -16,8 +16,6 @@
 
 package dagger.model;
 
-import static com.google.common.collect.Sets.intersection;
-import static com.google.common.graph.Graphs.inducedSubgraph;
 import static com.google.common.graph.Graphs.reachableNodes;
 import static com.google.common.graph.Graphs.transpose;
 import static dagger.internal.codegen.extension.DaggerStreams.instancesOf;
@@ -33,6 +31,7 @@ import com.google.common.graph.Network;
 import com.google.common.graph.NetworkBuilder;
 import dagger.Module;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -138,9 +137,7 @@ public abstract class BindingGraph {
 
   /** Returns the bindings for a key. */
   public ImmutableSet<Binding> bindings(Key key) {
-    return nodes(Binding.class).stream()
-        .filter(binding -> binding.key().equals(key))
-        .collect(toImmutableSet());
+    return bindingsByKey().get(key);
   }
 
   /** Returns the nodes that represent missing bindings. */
@@ -195,9 +192,7 @@ public abstract class BindingGraph {
 
   /** Returns the dependency edges for a dependency request. */
   public ImmutableSet<DependencyEdge> dependencyEdges(DependencyRequest dependencyRequest) {
-    return dependencyEdgeStream()
-        .filter(edge -> edge.dependencyRequest().equals(dependencyRequest))
-        .collect(toImmutableSet());
+    return dependencyEdgesByRequest().get(dependencyRequest);
   }
 
   /**
@@ -233,11 +228,13 @@ public abstract class BindingGraph {
    */
   public ImmutableSet<DependencyEdge> entryPointEdgesDependingOnBinding(
       MaybeBinding binding) {
-    ImmutableNetwork<Node, DependencyEdge> dependencyGraph = dependencyGraph();
-    Network<Node, DependencyEdge> subgraphDependingOnBinding =
-        inducedSubgraph(
-            dependencyGraph, reachableNodes(transpose(dependencyGraph).asGraph(), binding));
-    return intersection(entryPointEdges(), subgraphDependingOnBinding.edges()).immutableCopy();
+    // An entry point edge depends on the binding if its target does. There's no need to check its
+    // source, since the source of any edge into a node that depends on the binding does too.
+    Set<Node> nodesDependingOnBinding =
+        reachableNodes(transpose(dependencyGraph()).asGraph(), binding);
+    return entryPointEdges().stream()
+        .filter(edge -> nodesDependingOnBinding.contains(network().incidentNodes(edge).target()))
+        .collect(toImmutableSet());
   }
 
   /** Returns the bindings that directly request a given binding as a dependency. */
@@ -271,13 +268,17 @@ public abstract class BindingGraph {
         .collect(toImmutableSet());
   }
 
-  /** Returns a subnetwork that contains all nodes but only {@link DependencyEdge}s. */
-  // TODO(dpb): Make public. Cache.
-  private ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
+  /**
+   * Returns a subnetwork that contains all nodes but only {@link DependencyEdge}s.
+   *
+   * <p>Implementations generated by Dagger compute this once per graph.
+   */
+  // TODO(dpb): Make public.
+  protected ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
     MutableNetwork<Node, DependencyEdge> dependencyGraph =
         NetworkBuilder.from(network())
             .expectedNodeCount(network().nodes().size())
-            .expectedEdgeCount((int) dependencyEdgeStream().count())
+            .expectedEdgeCount(dependencyEdges().size())
             .build();
     network().nodes().forEach(dependencyGraph::addNode); // include disconnected nodes
     dependencyEdgeStream()
@@ -306,6 +307,25 @@ public abstract class BindingGraph {
                 node -> node));
   }
 
+  /**
+   * Returns an index of the bindings by their keys.
+   *
+   * <p>Implementations generated by Dagger compute this once per graph.
+   */
+  protected ImmutableSetMultimap<Key, Binding> bindingsByKey() {
+    return bindings().stream().collect(toImmutableSetMultimap(Binding::key, binding -> binding));
+  }
+
+  /**
+   * Returns an index of the dependency edges by their dependency requests.
+   *
+   * <p>Implementations generated by Dagger compute this once per graph.
+   */
+  protected ImmutableSetMultimap<DependencyRequest, DependencyEdge> dependencyEdgesByRequest() {
+    return dependencyEdgeStream()
+        .collect(toImmutableSetMultimap(DependencyEdge::dependencyRequest, edge -> edge));
+  }
+
   private Stream<DependencyEdge> dependencyEdgeStream() {
     return network().edges().stream().flatMap(instancesOf(DependencyEdge.class));
   }
@@ -18,9 +18,11 @@ package dagger.model;
 
 import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.graph.ImmutableNetwork;
 import com.google.common.graph.Network;
+import dagger.model.BindingGraph.DependencyEdge;
 import dagger.model.BindingGraph.Edge;
 import dagger.model.BindingGraph.MissingBinding;
 import dagger.model.BindingGraph.Node;
@@ -39,6 +41,36 @@ public final class BindingGraphProxies {
     public ImmutableSetMultimap<Class<? extends Node>, ? extends Node> nodesByClass() {
       return super.nodesByClass();
     }
+
+    @Override
+    @Memoized
+    public ImmutableSet<DependencyEdge> dependencyEdges() {
+      return super.dependencyEdges();
+    }
+
+    @Override
+    @Memoized
+    public ImmutableSet<DependencyEdge> entryPointEdges() {
+      return super.entryPointEdges();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
+      return super.dependencyGraph();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableSetMultimap<Key, Binding> bindingsByKey() {
+      return super.bindingsByKey();
+    }
+
+    @Override
+    @Memoized
+    protected ImmutableSetMultimap<DependencyRequest, DependencyEdge> dependencyEdgesByRequest() {
+      return super.dependencyEdgesByRequest();
+    }
   }
 
   @AutoValue
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.GcFinalization;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import dagger.model.BindingGraph;
+import dagger.model.ComponentPath;
+import dagger.spi.BindingGraphPlugin;
+import dagger.spi.DiagnosticReporter;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that the processor doesn't keep the state of a root component alive after the component
+ * has been generated, so that processing many components in one compilation needs only as much
+ * memory as the largest of them.
+ */
+@RunWith(JUnit4.class)
+public class BindingGraphRetentionTest {
+  private static final int COMPONENT_COUNT = 20;
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void previousGraphsAreCollected_withProfiling() {
+    File report = new File(temporaryFolder.getRoot(), "trace.json");
+    assertPreviousGraphsAreCollected("-Adagger.profile=" + report.getPath());
+    assertThat(report.exists()).isTrue();
+  }
+
+  @Test
+  public void previousGraphsAreCollected_withFormattingAndProfiling() {
+    File report = new File(temporaryFolder.getRoot(), "trace.json");
+    assertPreviousGraphsAreCollected(
+        "-Adagger.formatGeneratedSource=enabled", "-Adagger.profile=" + report.getPath());
+    assertThat(report.exists()).isTrue();
+  }
+
+  private static void assertPreviousGraphsAreCollected(String... options) {
+    ImmutableList.Builder<JavaFileObject> sources = ImmutableList.builder();
+    sources.add(
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}"));
+    for (int i = 0; i < COMPONENT_COUNT; i++) {
+      sources.add(
+          JavaFileObjects.forSourceLines(
+              "test.TestComponent" + i,
+              "package test;",
+              "",
+              "import dagger.Component;",
+              "",
+              "@Component",
+              "interface TestComponent" + i + " {",
+              "  Foo foo();",
+              "}"));
+    }
+
+    PreviousGraphCollectedPlugin plugin = new PreviousGraphCollectedPlugin();
+    Compilation compilation =
+        javac()
+            .withProcessors(ComponentProcessor.forTesting(plugin))
+            .withOptions(ImmutableList.copyOf(options))
+            .compile(sources.build());
+    assertThat(compilation).succeeded();
+    assertThat(plugin.graphsVisited).isEqualTo(COMPONENT_COUNT);
+  }
+
+  /**
+   * Waits for the graph of the previous component, and the path of its root component, to be
+   * garbage collected whenever it visits the graph of the next one, and fails if they never are.
+   */
+  private static final class PreviousGraphCollectedPlugin implements BindingGraphPlugin {
+    private WeakReference<BindingGraph> previousGraph;
+    private WeakReference<ComponentPath> previousComponentPath;
+    private int graphsVisited;
+
+    @Override
+    public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
+      if (previousGraph != null) {
+        GcFinalization.awaitClear(previousGraph);
+        GcFinalization.awaitClear(previousComponentPath);
+      }
+      previousGraph = new WeakReference<>(bindingGraph);
+      previousComponentPath =
+          new WeakReference<>(bindingGraph.rootComponentNode().componentPath());
+      graphsVisited++;
+    }
+  }
+}
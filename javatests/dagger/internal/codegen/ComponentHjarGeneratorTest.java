@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for the components generated for header compilation. Their methods have no bodies, so the
+ * compilations themselves fail; only the generated API is checked.
+ */
+@RunWith(JUnit4.class)
+public class ComponentHjarGeneratorTest {
+  private static final int MODULE_COUNT = 1000;
+
+  @Test
+  public void manyIncludedModules() {
+    ImmutableList.Builder<JavaFileObject> sources = ImmutableList.builder();
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      String includes = i + 1 < MODULE_COUNT ? "(includes = Module" + (i + 1) + ".class)" : "";
+      sources.add(
+          JavaFileObjects.forSourceLines(
+              "test.Module" + i,
+              "package test;",
+              "",
+              "import dagger.Module;",
+              "",
+              "@Module" + includes,
+              "final class Module" + i + " {}"));
+    }
+    sources.add(
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = Module0.class)",
+            "interface TestComponent {",
+            "  String string();",
+            "}"));
+
+    Compilation compilation =
+        compilerWithOptions("-Aexperimental_turbine_hjar").compile(sources.build());
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .containsMatch("public String string\\(\\)");
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .containsMatch("static TestComponent create\\(\\)");
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .containsMatch("module999\\(Module999 module999\\)");
+  }
+
+  @Test
+  public void factoryWithParameters() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.BindsInstance;",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  String string();",
+            "",
+            "  @Component.Factory",
+            "  interface Factory {",
+            "    TestComponent create(@BindsInstance String string);",
+            "  }",
+            "}");
+
+    Compilation compilation =
+        compilerWithOptions("-Aexperimental_turbine_hjar").compile(component);
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .containsMatch("static TestComponent.Factory factory\\(\\)");
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .doesNotContainMatch("static TestComponent create\\(\\)");
+  }
+}
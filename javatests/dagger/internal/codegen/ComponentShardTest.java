@@ -37,7 +37,7 @@ public class ComponentShardTest {
 
   @Test
   public void testNewShardCreated() {
-    // Create 2N + 1 bindings: N in DaggerTestComponent, N in Shard1, and 1 in Shard2
+    // Create 2N + 1 bindings: N - 1 in DaggerTestComponent, N in Shard1, and 2 in Shard2
     int numBindings = 2 * BINDINGS_PER_SHARD + 1;
     ImmutableList.Builder<JavaFileObject> javaFileObjects = ImmutableList.builder();
     ImmutableList.Builder<String> entryPoints = ImmutableList.builder();
@@ -46,8 +46,8 @@ public class ComponentShardTest {
       entryPoints.add(String.format("%1$s get%1$s();", bindingName));
       entryPoints.add(String.format("Provider<%1$s> get%1$sProvider();", bindingName));
 
-      // Add dependencies between main component and shard1: 9 -> 10 -> Provider<9>
-      // Add dependencies between shard1 and shard2:        19 -> 20 -> Provider<19>
+      // Add dependency cycles that would be split by a shard boundary: 9 -> 10 -> Provider<9>
+      //                                                                19 -> 20 -> Provider<19>
       switch (i) {
         case 9:
           javaFileObjects.add(createBinding(bindingName, "Binding10 dep"));
@@ -71,84 +71,103 @@ public class ComponentShardTest {
 
     // This generated component shows a couple things:
     //   1. Binding locations:
-    //     * Binding #9 belongs to DaggerTestComponent
-    //     * Binding #10 belongs to Shard1
-    //     * Binding #20 belongs to Shard2
+    //     * Bindings #0-#8 belong to DaggerTestComponent. #9 does not fit since it can't be
+    //       separated from #10.
+    //     * Bindings #9-#18 belong to Shard1.
+    //     * Bindings #19 and #20 belong to Shard2.
     //   2. DaggerTestComponent entry point methods:
-    //     * Binding #9 implementation is inlined DaggerTestComponent.
-    //     * Binding #10 implementation is delegated to Shard1.
-    //     * Binding #20 implementation is delegated to Shard2.
-    //   3. Dependencies between component and shard:
-    //     * Binding #9 in DaggerTestComponent depends on #10 in Shard1.
-    //     * Binding #10 in Shard1 depends on Provider<#9> in DaggerTestComponent.
-    //   4. Dependencies between shard and shard:
-    //     * Binding #19 in Shard1 depends on #20 in Shard2.
-    //     * Binding #20 in Shard2 depends on Provider<#19> in Shard1.
+    //     * Binding #9 and #10 implementations are delegated to Shard1.
+    //     * Binding #19 and #20 implementations are delegated to Shard2.
+    //   3. Shards are created lazily, the first time one of their bindings is requested.
+    //   4. Dependency cycles are kept within a shard:
+    //     * Binding #9 depends on #10 and #10 depends on Provider<#9>, all within Shard1.
+    //     * Binding #19 depends on #20 and #20 depends on Provider<#19>, all within Shard2.
     JavaFileObject generatedComponent =
         JavaFileObjects.forSourceLines(
             "dagger.internal.codegen.DaggerTestComponent",
                 "package dagger.internal.codegen;",
             GeneratedLines.generatedAnnotations(),
                 "final class DaggerTestComponent implements TestComponent {",
-                "  private final Shard1 shard1 = new Shard1();",
+                "  private volatile Object shard1 = new MemoizedSentinel();",
                 "",
-                "  private volatile Provider<Binding9> binding9Provider;",
+                "  private volatile Object shard2 = new MemoizedSentinel();",
                 "",
-                "  private volatile Object binding9 = new MemoizedSentinel();",
+                "  private Shard1 shard1() {",
+                "    Object local = shard1;",
+                "    if (local instanceof MemoizedSentinel) {",
+                "      synchronized (local) {",
+                "        local = shard1;",
+                "        if (local instanceof MemoizedSentinel) {",
+                "          local = new Shard1();",
+                "          shard1 = local;",
+                "        }",
+                "      }",
+                "    }",
+                "    return (Shard1) local;",
+                "  }",
                 "",
-                "  @Override",
-                "  public Binding9 getBinding9() {",
-                "    Object local = binding9;",
+                "  private Shard2 shard2() {",
+                "    Object local = shard2;",
                 "    if (local instanceof MemoizedSentinel) {",
                 "      synchronized (local) {",
-                "        local = binding9;",
+                "        local = shard2;",
                 "        if (local instanceof MemoizedSentinel) {",
-                "          local = new Binding9(DaggerTestComponent.this.shard1.binding10());",
-                "          binding9 = DoubleCheck.reentrantCheck(binding9, local);",
+                "          local = new Shard2();",
+                "          shard2 = local;",
                 "        }",
                 "      }",
                 "    }",
-                "    return (Binding9) local;",
+                "    return (Shard2) local;",
+                "  }",
+                "",
+                "  @Override",
+                "  public Binding9 getBinding9() {",
+                "    return DaggerTestComponent.this.shard1().binding9();",
                 "  }",
                 "",
                 "  @Override",
                 "  public Provider<Binding9> getBinding9Provider() {",
-                "    Object local = binding9Provider;",
-                "    if (local == null) {",
-                "      local = new SwitchingProvider<>(9);",
-                "      binding9Provider = (Provider<Binding9>) local;",
-                "    }",
-                "    return (Provider<Binding9>) local;",
+                "    return DaggerTestComponent.this.shard1().binding9Provider();",
                 "  }",
                 "",
                 "  @Override",
                 "  public Binding10 getBinding10() {",
-                "    return DaggerTestComponent.this.shard1.binding10();",
+                "    return DaggerTestComponent.this.shard1().binding10();",
                 "  }",
                 "",
                 "  @Override",
                 "  public Provider<Binding10> getBinding10Provider() {",
-                "    return DaggerTestComponent.this.shard1.binding10Provider();",
+                "    return DaggerTestComponent.this.shard1().binding10Provider();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Binding19 getBinding19() {",
+                "    return DaggerTestComponent.this.shard2().binding19();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Provider<Binding19> getBinding19Provider() {",
+                "    return DaggerTestComponent.this.shard2().binding19Provider();",
                 "  }",
                 "",
                 "  @Override",
                 "  public Binding20 getBinding20() {",
-                "    return DaggerTestComponent.this.shard2.binding20();",
+                "    return DaggerTestComponent.this.shard2().binding20();",
                 "  }",
                 "",
                 "  @Override",
                 "  public Provider<Binding20> getBinding20Provider() {",
-                "    return DaggerTestComponent.this.shard2.binding20Provider();",
+                "    return DaggerTestComponent.this.shard2().binding20Provider();",
                 "  }",
                 "",
                 "  private final class Shard1 {",
-                "    private volatile Object binding10 = new MemoizedSentinel();",
+                "    private volatile Provider<Binding9> binding9Provider;",
                 "",
-                "    private volatile Provider<Binding10> binding10Provider;",
+                "    private volatile Object binding10 = new MemoizedSentinel();",
                 "",
-                "    private volatile Provider<Binding19> binding19Provider;",
+                "    private volatile Object binding9 = new MemoizedSentinel();",
                 "",
-                "    private volatile Object binding19 = new MemoizedSentinel();",
+                "    private volatile Provider<Binding10> binding10Provider;",
                 "",
                 "    private Binding10 binding10() {",
                 "      Object local = binding10;",
@@ -156,8 +175,7 @@ public class ComponentShardTest {
                 "        synchronized (local) {",
                 "          local = binding10;",
                 "          if (local instanceof MemoizedSentinel) {",
-                "            local = new Binding10(",
-                "                DaggerTestComponent.this.getBinding9Provider());",
+                "            local = new Binding10(binding9Provider());",
                 "            binding10 = DoubleCheck.reentrantCheck(binding10, local);",
                 "          }",
                 "        }",
@@ -165,42 +183,28 @@ public class ComponentShardTest {
                 "      return (Binding10) local;",
                 "    }",
                 "",
-                "    private Provider<Binding10> binding10Provider() {",
-                "      Object local = binding10Provider;",
-                "      if (local == null) {",
-                "        local = new SwitchingProvider<>(10);",
-                "        binding10Provider = (Provider<Binding10>) local;",
-                "      }",
-                "      return (Provider<Binding10>) local;",
-                "    }",
-                "",
-                "    private Provider<Binding19> binding19Provider() {",
-                "      Object local = binding19Provider;",
-                "      if (local == null) {",
-                "        local = new SwitchingProvider<>(19);",
-                "        binding19Provider = (Provider<Binding19>) local;",
-                "      }",
-                "      return (Provider<Binding19>) local;",
-                "    }",
-                "",
-                "    private Binding19 binding19() {",
-                "      Object local = binding19;",
+                "    private Binding9 binding9() {",
+                "      Object local = binding9;",
                 "      if (local instanceof MemoizedSentinel) {",
                 "        synchronized (local) {",
-                "          local = binding19;",
+                "          local = binding9;",
                 "          if (local instanceof MemoizedSentinel) {",
-                "            local = new Binding19(DaggerTestComponent.this.shard2.binding20());",
-                "            binding19 = DoubleCheck.reentrantCheck(binding19, local);",
+                "            local = new Binding9(binding10());",
+                "            binding9 = DoubleCheck.reentrantCheck(binding9, local);",
                 "          }",
                 "        }",
                 "      }",
-                "      return (Binding19) local;",
+                "      return (Binding9) local;",
                 "    }",
                 "  }",
                 "",
                 "  private final class Shard2 {",
+                "    private volatile Provider<Binding19> binding19Provider;",
+                "",
                 "    private volatile Object binding20 = new MemoizedSentinel();",
                 "",
+                "    private volatile Object binding19 = new MemoizedSentinel();",
+                "",
                 "    private volatile Provider<Binding20> binding20Provider;",
                 "",
                 "    private Binding20 binding20() {",
@@ -209,8 +213,7 @@ public class ComponentShardTest {
                 "        synchronized (local) {",
                 "          local = binding20;",
                 "          if (local instanceof MemoizedSentinel) {",
-                "            local = new Binding20(",
-                "                DaggerTestComponent.this.shard1.binding19Provider());",
+                "            local = new Binding20(binding19Provider());",
                 "            binding20 = DoubleCheck.reentrantCheck(binding20, local);",
                 "          }",
                 "        }",
@@ -218,13 +221,18 @@ public class ComponentShardTest {
                 "      return (Binding20) local;",
                 "    }",
                 "",
-                "    private Provider<Binding20> binding20Provider() {",
-                "      Object local = binding20Provider;",
-                "      if (local == null) {",
-                "        local = new SwitchingProvider<>(20);",
-                "        binding20Provider = (Provider<Binding20>) local;",
+                "    private Binding19 binding19() {",
+                "      Object local = binding19;",
+                "      if (local instanceof MemoizedSentinel) {",
+                "        synchronized (local) {",
+                "          local = binding19;",
+                "          if (local instanceof MemoizedSentinel) {",
+                "            local = new Binding19(binding20());",
+                "            binding19 = DoubleCheck.reentrantCheck(binding19, local);",
+                "          }",
+                "        }",
                 "      }",
-                "      return (Provider<Binding20>) local;",
+                "      return (Binding19) local;",
                 "    }",
                 "  }",
                 "}");
@@ -236,6 +244,19 @@ public class ComponentShardTest {
         .containsElementsIn(generatedComponent);
   }
 
+  @Test
+  public void testInvalidKeysPerComponentShard() {
+    Compilation compilation =
+        javac()
+            .withProcessors(new ComponentProcessor())
+            .withOptions("-Adagger.keysPerComponentShard=0")
+            .compile(createBinding("Binding0"), createComponent(ImmutableList.of()));
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining(
+            "Processor option -Adagger.keysPerComponentShard must be a positive integer, found: 0");
+  }
+
   private static JavaFileObject createBinding(String bindingName, String... deps) {
     return JavaFileObjects.forSourceLines(
         "dagger.internal.codegen." + bindingName,
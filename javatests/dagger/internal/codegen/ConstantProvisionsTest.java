@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ConstantProvisionsTest {
+  private static final String INLINE_CONSTANT_PROVISIONS =
+      "-Adagger.inlineConstantProvisions=enabled";
+
+  private static final JavaFileObject MODULE =
+      JavaFileObjects.forSourceLines(
+          "test.TestModule",
+          "package test;",
+          "",
+          "import dagger.Module;",
+          "import dagger.Provides;",
+          "",
+          "@Module",
+          "interface TestModule {",
+          "  @Provides",
+          "  static int maxBatchSize() {",
+          "    return 128;",
+          "  }",
+          "",
+          "  @Provides",
+          "  static String name() {",
+          "    return \"dagger\";",
+          "  }",
+          "",
+          "  @Provides",
+          "  static long timeout() {",
+          "    return System.currentTimeMillis();",
+          "  }",
+          "}");
+
+  @Test
+  public void factoryRecordsConstant() {
+    JavaFileObject generatedFactory =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule_MaxBatchSizeFactory",
+            "package test;",
+            "",
+            GeneratedLines.generatedImports("import dagger.internal.Factory;"),
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "public final class TestModule_MaxBatchSizeFactory implements Factory<Integer> {",
+            "  public static final int CONSTANT = 128;",
+            "}");
+    Compilation compilation = compilerWithOptions(INLINE_CONSTANT_PROVISIONS).compile(MODULE);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.TestModule_MaxBatchSizeFactory")
+        .containsElementsIn(generatedFactory);
+  }
+
+  @Test
+  public void factoryWithoutOptionHasNoConstant() {
+    Compilation compilation = daggerCompiler().compile(MODULE);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.TestModule_MaxBatchSizeFactory")
+        .contentsAsUtf8String()
+        .doesNotContain("CONSTANT");
+  }
+
+  @Test
+  public void componentInlinesConstants() {
+    JavaFileObject consumer =
+        JavaFileObjects.forSourceLines(
+            "test.Consumer",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Consumer {",
+            "  @Inject Consumer(int maxBatchSize, String name, long timeout) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  int maxBatchSize();",
+            "  Consumer consumer();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "final class DaggerTestComponent implements TestComponent {",
+            "  @Override",
+            "  public int maxBatchSize() {",
+            "    return 128;",
+            "  }",
+            "",
+            "  @Override",
+            "  public Consumer consumer() {",
+            "    return new Consumer(128, \"dagger\", TestModule.timeout());",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(INLINE_CONSTANT_PROVISIONS).compile(MODULE, consumer, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+}
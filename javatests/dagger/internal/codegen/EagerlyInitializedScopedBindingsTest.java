@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EagerlyInitializedScopedBindingsTest {
+  private static final String EAGERLY_INITIALIZE_SCOPED_BINDINGS =
+      "-Adagger.eagerlyInitializeScopedBindings=enabled";
+
+  @Test
+  public void scopedBindingsStoredInFields() {
+    JavaFileObject scopedType =
+        JavaFileObjects.forSourceLines(
+            "test.ScopedType",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class ScopedType {",
+            "  @Inject ScopedType() {}",
+            "}");
+    JavaFileObject dependsOnScoped =
+        JavaFileObjects.forSourceLines(
+            "test.DependsOnScoped",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class DependsOnScoped {",
+            "  @Inject DependsOnScoped(ScopedType scopedType) {}",
+            "}");
+    JavaFileObject needsProvider =
+        JavaFileObjects.forSourceLines(
+            "test.NeedsProvider",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class NeedsProvider {",
+            "  @Inject NeedsProvider(Provider<DependsOnScoped> provider) {}",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface SimpleComponent {",
+            "  DependsOnScoped dependsOnScoped();",
+            "  NeedsProvider needsProvider();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerSimpleComponent",
+            "package test;",
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "final class DaggerSimpleComponent implements SimpleComponent {",
+            "  private ScopedType scopedType;",
+            "  private DependsOnScoped dependsOnScoped;",
+            "  private Provider<DependsOnScoped> dependsOnScopedProvider;",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize() {",
+            "    this.scopedType = new ScopedType();",
+            "    this.dependsOnScoped = new DependsOnScoped(scopedType);",
+            "    this.dependsOnScopedProvider = InstanceFactory.create(dependsOnScoped);",
+            "  }",
+            "",
+            "  @Override",
+            "  public DependsOnScoped dependsOnScoped() {",
+            "    return dependsOnScoped;",
+            "  }",
+            "",
+            "  @Override",
+            "  public NeedsProvider needsProvider() {",
+            "    return new NeedsProvider(dependsOnScopedProvider);",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(EAGERLY_INITIALIZE_SCOPED_BINDINGS)
+            .compile(scopedType, dependsOnScoped, needsProvider, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void scopedBindingWithProviderDependency_notEagerlyInitialized() {
+    JavaFileObject scopedType =
+        JavaFileObjects.forSourceLines(
+            "test.ScopedType",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class ScopedType {",
+            "  @Inject ScopedType(Provider<Object> objectProvider) {}",
+            "}");
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "interface TestModule {",
+            "  @Provides",
+            "  static Object provideObject() {",
+            "    return new Object();",
+            "  }",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = TestModule.class)",
+            "interface SimpleComponent {",
+            "  ScopedType scopedType();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerSimpleComponent",
+            "package test;",
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "final class DaggerSimpleComponent implements SimpleComponent {",
+            "  private Provider<ScopedType> scopedTypeProvider;",
+            "",
+            "  @Override",
+            "  public ScopedType scopedType() {",
+            "    return scopedTypeProvider.get();",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(EAGERLY_INITIALIZE_SCOPED_BINDINGS)
+            .compile(scopedType, module, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void scopedBindingRequestedOnlyLazily_notEagerlyInitialized() {
+    JavaFileObject scopedType =
+        JavaFileObjects.forSourceLines(
+            "test.ScopedType",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class ScopedType {",
+            "  @Inject ScopedType() {}",
+            "}");
+    JavaFileObject needsLazy =
+        JavaFileObjects.forSourceLines(
+            "test.NeedsLazy",
+            "package test;",
+            "",
+            "import dagger.Lazy;",
+            "import javax.inject.Inject;",
+            "",
+            "final class NeedsLazy {",
+            "  @Inject NeedsLazy(Lazy<ScopedType> lazy) {}",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface SimpleComponent {",
+            "  NeedsLazy needsLazy();",
+            "  Provider<ScopedType> scopedTypeProvider();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerSimpleComponent",
+            "package test;",
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "final class DaggerSimpleComponent implements SimpleComponent {",
+            "  private Provider<ScopedType> scopedTypeProvider;",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize() {",
+            "    this.scopedTypeProvider = DoubleCheck.provider(ScopedType_Factory.create());",
+            "  }",
+            "",
+            "  @Override",
+            "  public NeedsLazy needsLazy() {",
+            "    return new NeedsLazy(DoubleCheck.lazy(scopedTypeProvider));",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<ScopedType> scopedTypeProvider() {",
+            "    return scopedTypeProvider;",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(EAGERLY_INITIALIZE_SCOPED_BINDINGS)
+            .compile(scopedType, needsLazy, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .contentsAsUtf8String()
+        .doesNotContain("private ScopedType scopedType;");
+  }
+}
@@ -80,6 +80,22 @@ public class KeyFactoryTest {
     assertThat(key.toString()).isEqualTo("dagger.internal.codegen.KeyFactoryTest.InjectedClass");
   }
 
+  @Test public void keysAreInterned() {
+    TypeMirror stringType = elements.getTypeElement(String.class.getCanonicalName()).asType();
+    TypeElement moduleElement =
+        elements.getTypeElement(ProvidesMethodModule.class.getCanonicalName());
+    ExecutableElement providesMethod =
+        Iterables.getOnlyElement(ElementFilter.methodsIn(moduleElement.getEnclosedElements()));
+    Key key = keyFactory.forProvidesMethod(providesMethod, moduleElement);
+    assertThat(keyFactory.forProvidesMethod(providesMethod, moduleElement)).isSameInstanceAs(key);
+    assertThat(keyFactory.forMembersInjectedType(stringType)).isSameInstanceAs(key);
+
+    keyFactory.clearCache();
+    Key keyAfterClear = keyFactory.forMembersInjectedType(stringType);
+    assertThat(keyAfterClear).isNotSameInstanceAs(key);
+    assertThat(keyAfterClear).isEqualTo(key);
+  }
+
   static final class InjectedClass {
     @SuppressWarnings("unused")
     @Inject InjectedClass(String s, int i) {}
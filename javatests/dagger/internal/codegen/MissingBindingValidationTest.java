@@ -20,6 +20,7 @@ import static com.google.testing.compile.CompilationSubject.assertThat;
 import static dagger.internal.codegen.Compilers.daggerCompiler;
 import static dagger.internal.codegen.TestUtils.message;
 
+import com.google.common.collect.ImmutableList;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import javax.tools.JavaFileObject;
@@ -794,6 +795,67 @@ public class MissingBindingValidationTest {
         .onLineContaining("interface TestComponent");
   }
 
+  @Test
+  public void tooLongDependencyTrace() {
+    // @Named("1") String <- @Named("2") String <- ... <- @Named("105") String, which is missing
+    ImmutableList.Builder<String> module =
+        ImmutableList.<String>builder()
+            .add(
+                "package test;",
+                "",
+                "import dagger.Module;",
+                "import dagger.Provides;",
+                "import javax.inject.Named;",
+                "",
+                "@Module",
+                "interface TestModule {");
+    for (int i = 1; i < 105; i++) {
+      module.add(
+          String.format(
+              "  @Provides @Named(\"%1$d\") static String s%1$d(@Named(\"%2$d\") String s%2$d) {",
+              i, i + 1),
+          "    return null;",
+          "  }");
+    }
+    module.add("}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Named;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  @Named(\"1\") String string();",
+            "}");
+
+    Compilation compilation =
+        daggerCompiler()
+            .compile(
+                JavaFileObjects.forSourceLines("test.TestModule", module.build()), component);
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorCount(1);
+    // The trace has 105 requests, so the 5 in the middle are omitted.
+    assertThat(compilation)
+        .hadErrorContaining(
+            message(
+                "        TestModule.s55(s56)",
+                "    … 5 more requests",
+                "    @Named(\"50\") String is injected at",
+                "        TestModule.s49(s50)"))
+        .inFile(component)
+        .onLineContaining("interface TestComponent");
+    assertThat(compilation)
+        .hadErrorContaining(
+            message(
+                "    @Named(\"1\") String is requested at",
+                "        TestComponent.string()"))
+        .inFile(component)
+        .onLineContaining("interface TestComponent");
+  }
+
   @Test
   public void missingBindingInAllComponentsAndEntryPoints() {
     JavaFileObject parent =
@@ -16,13 +16,19 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
 import static dagger.model.testing.BindingGraphSubject.assertThat;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
+import dagger.model.Binding;
 import dagger.model.BindingGraph;
+import dagger.model.BindingGraph.DependencyEdge;
+import dagger.model.BindingGraphProxies;
 import javax.tools.JavaFileObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -74,4 +80,85 @@ public final class ModelTest {
     assertThat(bindingGraph).bindingWithKey("test.A").dependsOnBindingWithKey("test.B");
     assertThat(bindingGraph).bindingWithKey("test.B").dependsOnBindingWithKey("test.A");
   }
+
+  @Test
+  public void entryPointEdgesDependingOnBinding_matchesModelImplementation() {
+    JavaFileObject a =
+        JavaFileObjects.forSourceLines(
+            "test.A",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class A {",
+            "  @Inject A(B b) {}",
+            "}");
+    JavaFileObject b =
+        JavaFileObjects.forSourceLines(
+            "test.B",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class B {",
+            "  @Inject B(Provider<A> a, C c) {}",
+            "}");
+    JavaFileObject c =
+        JavaFileObjects.forSourceLines(
+            "test.C",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class C {",
+            "  @Inject C() {}",
+            "}");
+    JavaFileObject d =
+        JavaFileObjects.forSourceLines(
+            "test.D",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class D {",
+            "  @Inject D(C c) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  A a();",
+            "  B b();",
+            "  D d();",
+            "}");
+
+    BindingGraphCapturer capturer = new BindingGraphCapturer();
+    Compilation compilation =
+        javac()
+            .withProcessors(ComponentProcessor.forTesting(capturer))
+            .compile(a, b, c, d, component);
+    assertThat(compilation).succeeded();
+    BindingGraph bindingGraph = capturer.bindingGraphs().get("test.TestComponent");
+    // The graph that Dagger creates overrides entryPointEdgesDependingOnBinding() with its own
+    // traversal, so compare it with the one in dagger.model.BindingGraph.
+    BindingGraph modelGraph =
+        BindingGraphProxies.bindingGraph(
+            bindingGraph.network(), bindingGraph.isFullBindingGraph());
+    ImmutableMap<String, Integer> entryPointCounts =
+        ImmutableMap.of("test.A", 2, "test.B", 2, "test.C", 3, "test.D", 1);
+    for (Binding binding : bindingGraph.bindings()) {
+      ImmutableSet<DependencyEdge> entryPoints =
+          bindingGraph.entryPointEdgesDependingOnBinding(binding);
+      assertThat(entryPoints).isEqualTo(modelGraph.entryPointEdgesDependingOnBinding(binding));
+      if (entryPointCounts.containsKey(binding.key().toString())) {
+        assertThat(entryPoints).hasSize(entryPointCounts.get(binding.key().toString()));
+      }
+    }
+  }
 }
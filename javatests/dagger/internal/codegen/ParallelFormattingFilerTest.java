@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.googlejavaformat.java.Formatter;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelFormattingFilerTest {
+  private static final int PROVIDES_METHODS = 50;
+
+  @Test
+  public void formattedSourcesMatchSerialFormatting() throws Exception {
+    ImmutableList.Builder<String> module =
+        ImmutableList.<String>builder()
+            .add(
+                "package test;",
+                "",
+                "import dagger.Module;",
+                "import dagger.Provides;",
+                "import javax.inject.Named;",
+                "",
+                "@Module",
+                "interface TestModule {");
+    for (int i = 0; i < PROVIDES_METHODS; i++) {
+      module.add(
+          String.format("  @Provides @Named(\"%1$d\") static String s%1$d() {", i),
+          String.format("    return \"%d\";", i),
+          "  }");
+    }
+    module.add("}");
+    JavaFileObject moduleFile = JavaFileObjects.forSourceLines("test.TestModule", module.build());
+
+    Compilation unformatted = daggerCompiler().compile(moduleFile);
+    assertThat(unformatted).succeeded();
+    Compilation formatted =
+        compilerWithOptions("-Adagger.formatGeneratedSource=enabled").compile(moduleFile);
+    assertThat(formatted).succeeded();
+
+    Map<String, String> formattedSources = new HashMap<>();
+    for (JavaFileObject file : formatted.generatedSourceFiles()) {
+      formattedSources.put(file.getName(), file.getCharContent(true).toString());
+    }
+    assertThat(formattedSources).hasSize(unformatted.generatedSourceFiles().size());
+    for (JavaFileObject file : unformatted.generatedSourceFiles()) {
+      assertThat(formattedSources)
+          .containsEntry(
+              file.getName(), new Formatter().formatSource(file.getCharContent(true).toString()));
+    }
+  }
+}
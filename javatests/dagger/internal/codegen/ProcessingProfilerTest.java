@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.File;
+import java.nio.file.Files;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ProcessingProfilerTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final JavaFileObject COMPONENT =
+      JavaFileObjects.forSourceLines(
+          "test.TestComponent",
+          "package test;",
+          "",
+          "import dagger.Component;",
+          "import javax.inject.Inject;",
+          "",
+          "@Component",
+          "interface TestComponent {",
+          "  Foo foo();",
+          "",
+          "  final class Foo {",
+          "    @Inject Foo() {}",
+          "  }",
+          "}");
+
+  @Test
+  public void writesTrace() throws Exception {
+    File report = new File(temporaryFolder.getRoot(), "profile/trace.json");
+    Compilation compilation =
+        compilerWithOptions("-Adagger.profile=" + report.getPath()).compile(COMPONENT);
+    assertThat(compilation).succeeded();
+
+    String trace = new String(Files.readAllBytes(report.toPath()), UTF_8);
+    assertThat(trace).startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+    assertThat(trace).contains("\"name\":\"ComponentProcessingStep\",\"cat\":\"step\"");
+    assertThat(trace).contains("\"name\":\"test.TestComponent\",\"cat\":\"graph\"");
+    assertThat(trace).contains("\"name\":\"test.TestComponent\",\"cat\":\"generate\"");
+    assertThat(trace).contains("\"cat\":\"plugin\"");
+  }
+
+  @Test
+  public void emptyPath() {
+    Compilation compilation = compilerWithOptions("-Adagger.profile=").compile(COMPONENT);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("Processor option -Adagger.profile must be set to a file path");
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.CLASS_PATH_WITHOUT_GUAVA_OPTION;
+import static dagger.internal.codegen.Compilers.compilerWithOptions;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import javax.tools.JavaFileObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StaticReusableInstancesTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String STATIC_REUSABLE_INSTANCES =
+      "-Adagger.staticReusableInstances=enabled";
+
+  private static final JavaFileObject MODULE =
+      JavaFileObjects.forSourceLines(
+          "test.TestModule",
+          "package test;",
+          "",
+          "import dagger.Module;",
+          "import dagger.Provides;",
+          "import dagger.Reusable;",
+          "",
+          "@Module",
+          "interface TestModule {",
+          "  @Provides",
+          "  @Reusable",
+          "  static String provideString() {",
+          "    return new String();",
+          "  }",
+          "}");
+
+  private static final JavaFileObject COMPONENT =
+      JavaFileObjects.forSourceLines(
+          "test.TestComponent",
+          "package test;",
+          "",
+          "import dagger.Component;",
+          "import javax.inject.Provider;",
+          "",
+          "@Component(modules = TestModule.class)",
+          "interface TestComponent {",
+          "  String string();",
+          "  Provider<String> stringProvider();",
+          "}");
+
+  @Test
+  public void factoryHoldsStaticInstance() {
+    JavaFileObject generatedFactory =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule_ProvideStringFactory",
+            "package test;",
+            "",
+            GeneratedLines.generatedImports("import dagger.internal.Factory;"),
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "public final class TestModule_ProvideStringFactory implements Factory<String> {",
+            "  public static String reusableInstance() {",
+            "    return ReusableInstanceHolder.INSTANCE;",
+            "  }",
+            "",
+            "  private static final class ReusableInstanceHolder {",
+            "    private static final String INSTANCE = provideString();",
+            "  }",
+            "}");
+    Compilation compilation = compilerWithOptions(STATIC_REUSABLE_INSTANCES).compile(MODULE);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.TestModule_ProvideStringFactory")
+        .containsElementsIn(generatedFactory);
+  }
+
+  @Test
+  public void factoryWithoutOptionHasNoStaticInstance() {
+    Compilation compilation = daggerCompiler().compile(MODULE);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.TestModule_ProvideStringFactory")
+        .contentsAsUtf8String()
+        .doesNotContain("reusableInstance");
+  }
+
+  @Test
+  public void componentDoesNotUseStaticInstanceMissingFromLibraryFactory() throws IOException {
+    Compilation libraryCompilation = daggerCompiler().compile(MODULE);
+    assertThat(libraryCompilation).succeeded();
+    File library = writeClassFiles(libraryCompilation);
+
+    Compilation compilation =
+        compilerWithOptions(STATIC_REUSABLE_INSTANCES)
+            .withClasspath(
+                ImmutableList.<File>builder()
+                    .add(library)
+                    .addAll(CLASS_PATH_WITHOUT_GUAVA_OPTION)
+                    .build())
+            .compile(COMPONENT);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .doesNotContain("reusableInstance");
+  }
+
+  @Test
+  public void componentUsesStaticInstance() {
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            GeneratedLines.generatedAnnotations(),
+            "final class DaggerTestComponent implements TestComponent {",
+            "  private Provider<String> provideStringProvider;",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize() {",
+            "    this.provideStringProvider = new Provider<String>() {",
+            "      @Override",
+            "      public String get() {",
+            "        return TestModule_ProvideStringFactory.reusableInstance();",
+            "      }",
+            "    };",
+            "  }",
+            "",
+            "  @Override",
+            "  public String string() {",
+            "    return TestModule_ProvideStringFactory.reusableInstance();",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<String> stringProvider() {",
+            "    return provideStringProvider;",
+            "  }",
+            "}");
+    Compilation compilation =
+        compilerWithOptions(STATIC_REUSABLE_INSTANCES).compile(MODULE, COMPONENT);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  /** Writes the class files of a compilation to a new directory, which is returned. */
+  private File writeClassFiles(Compilation compilation) throws IOException {
+    File directory = temporaryFolder.newFolder();
+    for (JavaFileObject classFile : compilation.generatedFiles()) {
+      if (!classFile.getKind().equals(JavaFileObject.Kind.CLASS)) {
+        continue;
+      }
+      // The paths of class files are like /CLASS_OUTPUT/test/Foo.class.
+      String path = classFile.toUri().getPath();
+      File file = new File(directory, path.substring(path.indexOf('/', 1) + 1));
+      file.getParentFile().mkdirs();
+      try (InputStream in = classFile.openInputStream();
+          OutputStream out = Files.newOutputStream(file.toPath())) {
+        ByteStreams.copy(in, out);
+      }
+    }
+    return directory;
+  }
+}
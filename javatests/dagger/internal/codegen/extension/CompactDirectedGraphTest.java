@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.extension;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import java.util.BitSet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link CompactDirectedGraph}. */
+@RunWith(JUnit4.class)
+public final class CompactDirectedGraphTest {
+  @Test
+  public void nodesReaching_chain() {
+    MutableNetwork<String, String> network = network();
+    addEdge(network, "a", "b");
+    addEdge(network, "b", "c");
+    CompactDirectedGraph<String> graph = CompactDirectedGraph.copyOf(network, edge -> true);
+
+    assertThat(nodesReaching(graph, network, "c")).containsExactly("a", "b", "c");
+    assertThat(nodesReaching(graph, network, "b")).containsExactly("a", "b");
+    assertThat(nodesReaching(graph, network, "a")).containsExactly("a");
+  }
+
+  @Test
+  public void nodesReaching_cycle() {
+    MutableNetwork<String, String> network = network();
+    addEdge(network, "a", "b");
+    addEdge(network, "b", "a");
+    addEdge(network, "c", "a");
+    addEdge(network, "a", "d");
+    CompactDirectedGraph<String> graph = CompactDirectedGraph.copyOf(network, edge -> true);
+
+    assertThat(nodesReaching(graph, network, "a")).containsExactly("a", "b", "c");
+    assertThat(nodesReaching(graph, network, "d")).containsExactly("a", "b", "c", "d");
+    assertThat(nodesReaching(graph, network, "c")).containsExactly("c");
+  }
+
+  @Test
+  public void nodesReaching_selfLoopAndParallelEdges() {
+    MutableNetwork<String, String> network = network();
+    addEdge(network, "a", "a");
+    addEdge(network, "a", "b");
+    network.addEdge("b", "c", "b->c (1)");
+    network.addEdge("b", "c", "b->c (2)");
+    CompactDirectedGraph<String> graph = CompactDirectedGraph.copyOf(network, edge -> true);
+
+    assertThat(nodesReaching(graph, network, "a")).containsExactly("a");
+    assertThat(nodesReaching(graph, network, "c")).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void copyOf_filtersEdges() {
+    MutableNetwork<String, String> network = network();
+    addEdge(network, "a", "b");
+    addEdge(network, "b", "c");
+    network.addNode("isolated");
+    CompactDirectedGraph<String> graph =
+        CompactDirectedGraph.copyOf(network, edge -> !edge.equals("a->b"));
+
+    assertThat(nodesReaching(graph, network, "c")).containsExactly("b", "c");
+    assertThat(nodesReaching(graph, network, "isolated")).containsExactly("isolated");
+  }
+
+  @Test
+  public void index_unknownNode() {
+    MutableNetwork<String, String> network = network();
+    network.addNode("a");
+    CompactDirectedGraph<String> graph = CompactDirectedGraph.copyOf(network, edge -> true);
+
+    assertThrows(IllegalArgumentException.class, () -> graph.index("b"));
+  }
+
+  @Test
+  public void copyOf_undirected() {
+    MutableNetwork<String, String> network = NetworkBuilder.undirected().build();
+
+    assertThrows(
+        IllegalArgumentException.class, () -> CompactDirectedGraph.copyOf(network, edge -> true));
+  }
+
+  private static MutableNetwork<String, String> network() {
+    return NetworkBuilder.directed().allowsSelfLoops(true).allowsParallelEdges(true).build();
+  }
+
+  private static void addEdge(
+      MutableNetwork<String, String> network, String source, String target) {
+    network.addEdge(source, target, source + "->" + target);
+  }
+
+  /** Returns the nodes of {@code network} that {@code graph} finds can reach {@code node}. */
+  private static ImmutableSet<String> nodesReaching(
+      CompactDirectedGraph<String> graph, Network<String, String> network, String node) {
+    BitSet indexes = graph.nodesReaching(graph.index(node));
+    return network.nodes().stream()
+        .filter(candidate -> indexes.get(graph.index(candidate)))
+        .collect(toImmutableSet());
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.extension;
+
+import static com.google.common.truth.Truth.assertThat;
+import static dagger.internal.codegen.extension.DaggerGraphs.pathInShortestPathTree;
+import static dagger.internal.codegen.extension.DaggerGraphs.shortestPath;
+import static dagger.internal.codegen.extension.DaggerGraphs.shortestPathTree;
+import static dagger.internal.codegen.extension.DaggerGraphs.stronglyConnectedComponents;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import com.google.common.graph.SuccessorsFunction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link DaggerGraphs}. */
+@RunWith(JUnit4.class)
+public final class DaggerGraphsTest {
+  @Test
+  public void shortestPathTree_unreachableNode() {
+    MutableGraph<String> graph = graph();
+    graph.putEdge("a", "b");
+    graph.putEdge("c", "a");
+
+    ImmutableMap<String, String> tree = shortestPathTree(graph, "a");
+
+    assertThat(tree).containsExactly("b", "a");
+    assertThat(pathInShortestPathTree(tree, "a", "c")).isEmpty();
+    assertThat(shortestPath(graph, "a", "c")).isEmpty();
+  }
+
+  @Test
+  public void shortestPathTree_rootAsTarget() {
+    MutableGraph<String> graph = graph();
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "a");
+
+    ImmutableMap<String, String> tree = shortestPathTree(graph, "a");
+
+    // The root is never in the tree, even when a cycle leads back to it.
+    assertThat(tree).containsExactly("b", "a");
+    assertThat(pathInShortestPathTree(tree, "a", "a")).containsExactly("a");
+    assertThat(shortestPath(graph, "a", "a")).containsExactly("a");
+  }
+
+  @Test
+  public void shortestPathTree_ties() {
+    // a -> b -> d and a -> c -> d are equally short paths to d.
+    ImmutableListMultimap<String, String> successors =
+        ImmutableListMultimap.<String, String>builder()
+            .putAll("a", "b", "c")
+            .putAll("b", "d")
+            .putAll("c", "d", "e")
+            .putAll("d", "e", "f")
+            .build();
+    SuccessorsFunction<String> graph = successors::get;
+
+    ImmutableMap<String, String> tree = shortestPathTree(graph, "a");
+
+    // The first successor visited wins, as in shortestPath().
+    assertThat(pathInShortestPathTree(tree, "a", "d")).containsExactly("a", "b", "d").inOrder();
+    assertThat(pathInShortestPathTree(tree, "a", "e")).containsExactly("a", "c", "e").inOrder();
+    assertThat(pathInShortestPathTree(tree, "a", "f"))
+        .containsExactly("a", "b", "d", "f")
+        .inOrder();
+    for (String node : ImmutableList.of("b", "c", "d", "e", "f")) {
+      assertThat(pathInShortestPathTree(tree, "a", node))
+          .isEqualTo(shortestPath(graph, "a", node));
+    }
+  }
+
+  @Test
+  public void stronglyConnectedComponents_singleNode() {
+    MutableGraph<String> graph = graph();
+    graph.addNode("a");
+
+    assertThat(stronglyConnectedComponents(ImmutableList.of("a"), graph))
+        .containsExactly(ImmutableSet.of("a"));
+  }
+
+  @Test
+  public void stronglyConnectedComponents_selfLoop() {
+    MutableGraph<String> graph = graph();
+    graph.putEdge("a", "a");
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "b");
+
+    assertThat(stronglyConnectedComponents(ImmutableList.of("a"), graph))
+        .containsExactly(ImmutableSet.of("b"), ImmutableSet.of("a"))
+        .inOrder();
+  }
+
+  @Test
+  public void stronglyConnectedComponents_nestedCycles() {
+    MutableGraph<String> graph = graph();
+    // a -> b -> c -> a, with an inner cycle b -> a
+    graph.putEdge("a", "b");
+    graph.putEdge("b", "c");
+    graph.putEdge("c", "a");
+    graph.putEdge("b", "a");
+    // c -> d -> e -> d, and e -> f
+    graph.putEdge("c", "d");
+    graph.putEdge("d", "e");
+    graph.putEdge("e", "d");
+    graph.putEdge("e", "f");
+
+    assertThat(stronglyConnectedComponents(ImmutableList.of("a"), graph))
+        .containsExactly(
+            ImmutableSet.of("f"), ImmutableSet.of("d", "e"), ImmutableSet.of("a", "b", "c"))
+        .inOrder();
+  }
+
+  @Test
+  public void stronglyConnectedComponents_onlyNodesReachableFromRoots() {
+    MutableGraph<String> graph = graph();
+    graph.putEdge("a", "b");
+    graph.putEdge("unreachable", "a");
+    graph.putEdge("c", "c");
+
+    assertThat(stronglyConnectedComponents(ImmutableList.of("a", "c", "b"), graph))
+        .containsExactly(ImmutableSet.of("b"), ImmutableSet.of("a"), ImmutableSet.of("c"))
+        .inOrder();
+  }
+
+  @Test
+  public void stronglyConnectedComponents_deepChain() {
+    int length = 100_000;
+    SuccessorsFunction<Integer> chain =
+        node -> node + 1 < length ? ImmutableList.of(node + 1) : ImmutableList.of();
+
+    ImmutableList<ImmutableSet<Integer>> components =
+        stronglyConnectedComponents(ImmutableList.of(0), chain);
+
+    assertThat(components).hasSize(length);
+    assertThat(components.get(0)).containsExactly(length - 1);
+    assertThat(components.get(length - 1)).containsExactly(0);
+  }
+
+  @Test
+  public void stronglyConnectedComponents_deepCycle() {
+    int length = 100_000;
+    SuccessorsFunction<Integer> cycle = node -> ImmutableList.of((node + 1) % length);
+
+    ImmutableList<ImmutableSet<Integer>> components =
+        stronglyConnectedComponents(ImmutableList.of(0), cycle);
+
+    assertThat(components).hasSize(1);
+    assertThat(components.get(0)).hasSize(length);
+  }
+
+  private static MutableGraph<String> graph() {
+    return GraphBuilder.directed().allowsSelfLoops(true).build();
+  }
+}
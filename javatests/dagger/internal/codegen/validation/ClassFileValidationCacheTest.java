@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2020 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen.validation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import com.sun.source.util.Trees;
+import dagger.internal.codegen.langmodel.DaggerElements;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ClassFileValidationCache}. */
+@RunWith(JUnit4.class)
+public class ClassFileValidationCacheTest {
+  private static final JavaFileObject SOURCE_TYPE =
+      JavaFileObjects.forSourceLines(
+          "test.SourceType",
+          "package test;",
+          "",
+          "final class SourceType {}");
+
+  @Test
+  public void classFileType_knownValidInLaterRounds() {
+    processInRounds(
+        (cache, elements) -> {
+          TypeElement type = classFileType(elements);
+          assertThat(cache.isKnownValid(type)).isFalse();
+          cache.record(type, ValidationReport.about(type).build());
+          assertThat(cache.isKnownValid(type)).isTrue();
+        },
+        (cache, elements) -> assertThat(cache.isKnownValid(classFileType(elements))).isTrue());
+  }
+
+  @Test
+  public void sourceType_neverKnownValid() {
+    processInRounds(
+        (cache, elements) -> {
+          TypeElement type = sourceType(elements);
+          cache.record(type, ValidationReport.about(type).build());
+          assertThat(cache.isKnownValid(type)).isFalse();
+        },
+        (cache, elements) -> assertThat(cache.isKnownValid(sourceType(elements))).isFalse());
+  }
+
+  @Test
+  public void reportWithItems_notRemembered() {
+    processInRounds(
+        (cache, elements) -> {
+          TypeElement type = classFileType(elements);
+          cache.record(type, ValidationReport.about(type).addWarning("warning").build());
+          assertThat(cache.isKnownValid(type)).isFalse();
+          cache.record(type, ValidationReport.about(type).addError("error").build());
+          assertThat(cache.isKnownValid(type)).isFalse();
+        },
+        (cache, elements) -> assertThat(cache.isKnownValid(classFileType(elements))).isFalse());
+  }
+
+  static final class ClassFileType {}
+
+  private static TypeElement classFileType(Elements elements) {
+    return elements.getTypeElement(ClassFileType.class.getCanonicalName());
+  }
+
+  private static TypeElement sourceType(Elements elements) {
+    return elements.getTypeElement("test.SourceType");
+  }
+
+  @SafeVarargs
+  private static void processInRounds(BiConsumer<ClassFileValidationCache, Elements>... rounds) {
+    CacheProcessor processor = new CacheProcessor(ImmutableList.copyOf(rounds));
+    Compilation compilation = javac().withProcessors(processor).compile(SOURCE_TYPE);
+    assertThat(compilation).succeeded();
+    assertThat(processor.round).isEqualTo(rounds.length);
+  }
+
+  /**
+   * Runs each action in its own processing round, all against the same cache, generating a source
+   * file after each but the last to force another round.
+   */
+  private static final class CacheProcessor extends AbstractProcessor {
+    private final ImmutableList<BiConsumer<ClassFileValidationCache, Elements>> rounds;
+    private ClassFileValidationCache cache;
+    private int round;
+
+    CacheProcessor(ImmutableList<BiConsumer<ClassFileValidationCache, Elements>> rounds) {
+      this.rounds = rounds;
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+      super.init(processingEnv);
+      cache =
+          new ClassFileValidationCache.Factory(
+                  Optional.of(Trees.instance(processingEnv)), new DaggerElements(processingEnv))
+              .create();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return ImmutableSet.of("*");
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (round < rounds.size()) {
+        rounds.get(round++).accept(cache, processingEnv.getElementUtils());
+        if (round < rounds.size()) {
+          String generatedClassName = "test.Round" + round;
+          try (Writer writer =
+              processingEnv.getFiler().createSourceFile(generatedClassName).openWriter()) {
+            writer.append("package test; final class Round" + round + " {}");
+          } catch (IOException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }
+      return false;
+    }
+  }
+}